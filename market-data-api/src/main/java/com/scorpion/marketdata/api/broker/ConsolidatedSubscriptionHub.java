@@ -0,0 +1,119 @@
+package com.scorpion.marketdata.api.broker;
+
+import com.scorpion.marketdata.core.dto.ConsolidatedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Fans consolidated-change events from core out to push subscribers. Each subscriber keeps only the
+// latest undelivered event per symbol, so a slow client skips intermediate prices instead of queueing them.
+@Component
+public class ConsolidatedSubscriptionHub {
+    private static final Logger log = LoggerFactory.getLogger(ConsolidatedSubscriptionHub.class);
+    public static final String LISTENER_ID = "market-data-api-consolidated-events";
+    private final ConcurrentHashMap<String, Set<Subscriber>> subscribersBySymbol = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    public ConsolidatedSubscriptionHub(MeterRegistry meterRegistry) {
+        meterRegistry.gauge("market.data.api.subscribers", subscriberCount);
+    }
+
+    public Flux<ConsolidatedEvent> subscribe(Collection<String> symbols) {
+        Set<String> subscribedSymbols = Set.copyOf(symbols);
+
+        return Flux.create(sink -> {
+            Subscriber subscriber = new Subscriber(sink);
+
+            for (String symbol : subscribedSymbols) {
+                subscribersBySymbol.computeIfAbsent(symbol, key -> ConcurrentHashMap.newKeySet()).add(subscriber);
+            }
+
+            subscriberCount.incrementAndGet();
+            sink.onRequest(requested -> subscriber.drain());
+            sink.onDispose(() -> {
+                for (String symbol : subscribedSymbols) {
+                    subscribersBySymbol.computeIfPresent(symbol, (key, subscribers) -> {
+                        subscribers.remove(subscriber);
+                        return subscribers.isEmpty() ? null : subscribers;
+                    });
+                }
+
+                subscriberCount.decrementAndGet();
+            });
+        });
+    }
+
+    // Every API instance needs every event, so the group is per instance and starts from the latest offset
+    @KafkaListener(
+            id = LISTENER_ID,
+            topics = "market-data-consolidated-events",
+            groupId = "market-data-api-events-${market-data.api.reply-partition}",
+            properties = "auto.offset.reset=latest")
+    public void handleConsolidatedEvent(ConsolidatedEvent event) {
+        if (event == null || event.getSymbol() == null) {
+            log.warn("Discarding consolidated event without a symbol");
+            return;
+        }
+
+        Set<Subscriber> subscribers = subscribersBySymbol.get(event.getSymbol());
+
+        if (subscribers != null) {
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(event);
+            }
+        }
+    }
+
+    private static final class Subscriber {
+        private final FluxSink<ConsolidatedEvent> sink;
+        private final ConcurrentHashMap<String, ConsolidatedEvent> latest = new ConcurrentHashMap<>();
+        private final ConcurrentLinkedQueue<String> dirtySymbols = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger wip = new AtomicInteger();
+
+        private Subscriber(FluxSink<ConsolidatedEvent> sink) {
+            this.sink = sink;
+        }
+
+        // A symbol is queued once; later events before delivery only replace its latest value
+        void offer(ConsolidatedEvent event) {
+            if (latest.put(event.getSymbol(), event) == null) {
+                dirtySymbols.add(event.getSymbol());
+            }
+
+            drain();
+        }
+
+        // Emits only as much as downstream has requested; the rest stays conflated
+        void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+
+            do {
+                while (sink.requestedFromDownstream() > 0 && !sink.isCancelled()) {
+                    String symbol = dirtySymbols.poll();
+
+                    if (symbol == null) {
+                        break;
+                    }
+
+                    ConsolidatedEvent event = latest.remove(symbol);
+
+                    if (event != null) {
+                        sink.next(event);
+                    }
+                }
+            } while (wip.decrementAndGet() != 0);
+        }
+    }
+}
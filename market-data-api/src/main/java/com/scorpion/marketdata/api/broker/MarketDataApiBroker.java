@@ -1,42 +1,134 @@
 package com.scorpion.marketdata.api.broker;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.scorpion.marketdata.api.dto.*;
 import com.scorpion.marketdata.core.dto.KafkaResponse;
 import com.scorpion.marketdata.core.dto.TransactionStatusDto;
+import com.scorpion.marketdata.api.jfr.CorrelationCompletedEvent;
+import com.scorpion.marketdata.core.timing.TimingHeaders;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.utils.Utils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.TopicPartition;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.KafkaHeaders;
 import org.springframework.messaging.Message;
+import org.springframework.messaging.handler.annotation.Headers;
 import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 public class MarketDataApiBroker {
     private static final Logger log = LoggerFactory.getLogger(MarketDataApiBroker.class);
+    private static final String BULK_TOPIC = "market-data-update-batch";
+    public static final String REPLY_LISTENER_ID = "market-data-api-replies";
     private final KafkaTemplate<String, Object> kafkaTemplate;
-    private final ConcurrentHashMap<String, CompletableFuture<Object>> pendingRequests = new ConcurrentHashMap<>();
-
-    public MarketDataApiBroker(KafkaTemplate<String, Object> kafkaTemplate) {
+    private final PendingRequestRegistry pendingRequestRegistry;
+    private final StageMetrics stageMetrics;
+    // Core sends each reply to the topic and partition named in these headers, so every API
+    // instance only consumes the replies to its own requests
+    private final byte[] replyTopic;
+    private final byte[] replyPartition;
+    private final int batchStreamChunkSize;
+    private final int bulkChunkSize;
+    private final int bulkMaxInFlightChunks;
+    // Reads bulk request bodies and sends their chunks; uploads beyond its threads wait their turn
+    private final ExecutorService bulkExecutor;
+
+    public MarketDataApiBroker(KafkaTemplate<String, Object> kafkaTemplate,
+                               PendingRequestRegistry pendingRequestRegistry,
+                               StageMetrics stageMetrics,
+                               @Value("${market-data.api.reply-topic:market-data-response}") String replyTopic,
+                               @Value("${market-data.api.reply-partition}") int replyPartition,
+                               @Value("${market-data.api.batch-stream.chunk-size:500}") int batchStreamChunkSize,
+                               @Value("${market-data.api.bulk.chunk-size:1000}") int bulkChunkSize,
+                               @Value("${market-data.api.bulk.max-in-flight-chunks:4}") int bulkMaxInFlightChunks,
+                               @Value("${market-data.api.bulk.threads:4}") int bulkThreads) {
         this.kafkaTemplate = kafkaTemplate;
+        this.pendingRequestRegistry = pendingRequestRegistry;
+        this.stageMetrics = stageMetrics;
+        this.replyTopic = replyTopic.getBytes(StandardCharsets.UTF_8);
+        this.replyPartition = ByteBuffer.allocate(Integer.BYTES).putInt(replyPartition).array();
+        this.batchStreamChunkSize = batchStreamChunkSize;
+        this.bulkChunkSize = bulkChunkSize;
+        this.bulkMaxInFlightChunks = bulkMaxInFlightChunks;
+        this.bulkExecutor = Executors.newFixedThreadPool(bulkThreads, runnable -> {
+            Thread thread = new Thread(runnable, "market-data-bulk");
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     private String generateCorrelationId() {
         return java.util.UUID.randomUUID().toString();
     }
 
-    public ResponseEntity<Object> saveMarketData(MarketDataRequestBody request) {
+    // Registers the correlation before sending so a fast reply cannot miss it; nothing is sent
+    // when the registry is already at its in-flight limit.
+    private CompletableFuture<Object> sendRequest(String correlationId, Message<?> message) {
+        CompletableFuture<Object> future = pendingRequestRegistry.register(correlationId);
+
+        if (!future.isCompletedExceptionally()) {
+            send(correlationId, message);
+        }
+
+        return future;
+    }
+
+    // A failed send fails the pending request at once rather than when its deadline passes. The send
+    // time is stamped last so it excludes building the request; core echoes it on the reply.
+    private void send(String correlationId, Message<?> message) {
+        try {
+            kafkaTemplate.send(MessageBuilder.fromMessage(message)
+                    .setHeader(TimingHeaders.API_SENT, TimingHeaders.encode(TimingHeaders.nowMicros()))
+                    .build()).whenComplete((result, ex) -> {
+                if (ex != null) {
+                    log.warn("Failed to send market data request {}", correlationId, ex);
+                    pendingRequestRegistry.fail(correlationId, ex);
+                }
+            });
+        } catch (RuntimeException e) {
+            log.warn("Failed to send market data request {}", correlationId, e);
+            pendingRequestRegistry.fail(correlationId, e);
+        }
+    }
+
+    private ResponseEntity<Object> errorResponse(Throwable ex) {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+
+        if (cause instanceof RejectedExecutionException) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body("Too many in-flight requests.");
+        } else if (cause instanceof TimeoutException) {
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body("Timed out waiting for market data core.");
+        } else {
+            return ResponseEntity.internalServerError().body("Error in Kafka.");
+        }
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> saveMarketData(MarketDataRequestBody request) {
         String correlationId = generateCorrelationId();
-        CompletableFuture<Object> future = new CompletableFuture<>();
-        pendingRequests.put(correlationId, future);
 
         log.error("Request Body: {}", request.toString());
 
@@ -47,33 +139,240 @@ public class MarketDataApiBroker {
         Message<UpdateRequest> message = MessageBuilder
                 .withPayload(kafkaRequest)
                 .setHeader(KafkaHeaders.TOPIC, "market-data-update")
+                // Keyed by symbol so all updates for a symbol share a partition and are applied in order
+                .setHeader(KafkaHeaders.KEY, request.getSymbol())
+                .setHeader(KafkaHeaders.REPLY_TOPIC, replyTopic)
+                .setHeader(KafkaHeaders.REPLY_PARTITION, replyPartition)
                 .build();
 
-        kafkaTemplate.send(message);
+        return sendRequest(correlationId, message).handle((data, ex) -> {
+            if (ex != null) {
+                return errorResponse(ex);
+            }
 
-        try {
             log.warn("Sending market data update response");
 
-            ObjectMapper mapper = new ObjectMapper();
-            String jsonResult = mapper.writeValueAsString(future.join());
-            TransactionStatusDto result = mapper.readValue(jsonResult, TransactionStatusDto.class);
+            TransactionStatusDto result = toTransactionStatus(data);
 
-            if (result.getStatus()) {
+            if (result == null) {
+                return ResponseEntity.internalServerError().body("Error in Kafka.");
+            } else if (result.getStatus()) {
                 return ResponseEntity.status(HttpStatus.CREATED).body(result.getMessage());
             } else {
                 return ResponseEntity.badRequest().body(result.getMessage());
             }
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().body("Error in Kafka.");
-        } finally {
-            pendingRequests.remove(correlationId);
+        });
+    }
+
+    // Reads records lazily and sends them in chunks that core applies one transaction each. No thread
+    // waits on core: reading and sending run on the bulk executor, and each completed chunk schedules
+    // the next read, so at most bulkMaxInFlightChunks chunks are outstanding per upload. Blocking reads
+    // of the request body stay off the servlet and Kafka listener threads.
+    public CompletableFuture<ResponseEntity<Object>> saveMarketDataBulk(Iterator<MarketDataRequestBody> records) {
+        BulkUpload upload = new BulkUpload(records);
+        upload.schedule();
+
+        return upload.done.handle((summary, ex) -> {
+            if (ex != null) {
+                return errorResponse(ex);
+            }
+
+            if (summary.getError() != null && summary.getTotal() == 0) {
+                return ResponseEntity.badRequest().body(summary);
+            }
+
+            return ResponseEntity.ok(summary);
+        });
+    }
+
+    private final class BulkUpload {
+        private final long startNanos = System.nanoTime();
+        private final Iterator<MarketDataRequestBody> records;
+        // Guarded by itself: chunk replies are recorded on the reply listener threads
+        private final BulkUpdateSummary summary = new BulkUpdateSummary();
+        private final CompletableFuture<BulkUpdateSummary> done = new CompletableFuture<>();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicBoolean pumping = new AtomicBoolean();
+        private volatile boolean exhausted;
+        // Only touched by pump, which never runs twice at once
+        private int partitions = -1;
+        private int offset;
+
+        private BulkUpload(Iterator<MarketDataRequestBody> records) {
+            this.records = records;
+        }
+
+        void schedule() {
+            if (pumping.compareAndSet(false, true)) {
+                try {
+                    bulkExecutor.execute(this::pump);
+                } catch (RejectedExecutionException e) {
+                    done.completeExceptionally(e);
+                }
+            }
+        }
+
+        // Reads and sends chunks until the in-flight limit is reached or the records run out
+        private void pump() {
+            try {
+                if (partitions < 0) {
+                    partitions = bulkTopicPartitions();
+                }
+
+                while (!exhausted && !done.isDone() && inFlight.get() < bulkMaxInFlightChunks) {
+                    List<MarketDataRequestBody> chunk = new ArrayList<>(bulkChunkSize);
+
+                    try {
+                        while (chunk.size() < bulkChunkSize && records.hasNext()) {
+                            chunk.add(records.next());
+                        }
+
+                        exhausted = !records.hasNext();
+                    } catch (RuntimeException e) {
+                        // Records read before the malformed one are still applied and reported
+                        log.warn("Stopped reading bulk request after {} records", offset + chunk.size(), e);
+
+                        synchronized (summary) {
+                            summary.setError("Malformed record at index " + (offset + chunk.size()) + ".");
+                        }
+
+                        exhausted = true;
+                    }
+
+                    if (!chunk.isEmpty()) {
+                        inFlight.incrementAndGet();
+                        sendBulkChunk(offset, chunk, partitions).whenComplete((result, ex) -> chunkCompleted());
+                        offset += chunk.size();
+                    }
+                }
+            } catch (RuntimeException e) {
+                done.completeExceptionally(e);
+                return;
+            } finally {
+                pumping.set(false);
+            }
+
+            // A chunk may have completed after the loop checked the in-flight count
+            if (!exhausted && !done.isDone() && inFlight.get() < bulkMaxInFlightChunks) {
+                schedule();
+            }
+
+            completeIfDone();
+        }
+
+        private void chunkCompleted() {
+            inFlight.decrementAndGet();
+
+            if (exhausted) {
+                completeIfDone();
+            } else {
+                schedule();
+            }
+        }
+
+        private void completeIfDone() {
+            synchronized (summary) {
+                if (exhausted && inFlight.get() == 0 && !done.isDone()) {
+                    summary.setElapsedMs((System.nanoTime() - startNanos) / 1_000_000);
+                    done.complete(summary);
+                }
+            }
+        }
+
+        // Each message of a chunk only holds records of symbols on one partition of the bulk topic, so
+        // a symbol's records are applied in order across chunks and concurrent uploads, and the chunk is
+        // still spread over every core consumer
+        private CompletableFuture<Void> sendBulkChunk(int chunkOffset, List<MarketDataRequestBody> chunk, int partitions) {
+            Map<Object, List<Integer>> groups = new LinkedHashMap<>();
+
+            for (int i = 0; i < chunk.size(); i++) {
+                String symbol = chunk.get(i) != null ? chunk.get(i).getSymbol() : null;
+                Object group = partitions > 0 ? bulkPartition(symbol, partitions) : String.valueOf(symbol);
+                groups.computeIfAbsent(group, key -> new ArrayList<>()).add(i);
+            }
+
+            List<CompletableFuture<Object>> replies = new ArrayList<>(groups.size());
+
+            for (Map.Entry<Object, List<Integer>> group : groups.entrySet()) {
+                List<MarketDataRequestBody> marketData = new ArrayList<>(group.getValue().size());
+
+                for (int index : group.getValue()) {
+                    marketData.add(chunk.get(index));
+                }
+
+                String correlationId = generateCorrelationId();
+                MessageBuilder<BatchUpdateRequest> message = MessageBuilder
+                        .withPayload(new BatchUpdateRequest(correlationId, marketData))
+                        .setHeader(KafkaHeaders.TOPIC, BULK_TOPIC)
+                        .setHeader(KafkaHeaders.KEY, marketData.get(0) != null ? marketData.get(0).getSymbol() : null)
+                        .setHeader(KafkaHeaders.REPLY_TOPIC, replyTopic)
+                        .setHeader(KafkaHeaders.REPLY_PARTITION, replyPartition);
+
+                if (group.getKey() instanceof Integer partition) {
+                    message.setHeader(KafkaHeaders.PARTITION, partition);
+                }
+
+                replies.add(sendRequest(correlationId, message.build()).whenComplete((statuses, ex) ->
+                        recordBulkStatuses(chunkOffset, chunk, group.getValue(), statuses, ex)));
+            }
+
+            return CompletableFuture.allOf(replies.toArray(CompletableFuture[]::new));
+        }
+
+        private void recordBulkStatuses(int chunkOffset, List<MarketDataRequestBody> chunk, List<Integer> indexes, Object reply, Throwable ex) {
+            List<?> statuses = reply instanceof List<?> list ? list : null;
+            String error = ex != null ? String.valueOf(errorResponse(ex).getBody()) : null;
+
+            synchronized (summary) {
+                for (int i = 0; i < indexes.size(); i++) {
+                    int index = indexes.get(i);
+                    TransactionStatusDto status = error == null && statuses != null && i < statuses.size() ? toTransactionStatus(statuses.get(i)) : null;
+
+                    if (status != null && status.getStatus()) {
+                        summary.succeeded();
+                    } else {
+                        summary.failed(chunkOffset + index, chunk.get(index),
+                                error != null ? error : status != null ? status.getMessage() : "No status from market data core.");
+                    }
+                }
+            }
+        }
+    }
+
+    private int bulkTopicPartitions() {
+        try {
+            List<PartitionInfo> partitions = kafkaTemplate.partitionsFor(BULK_TOPIC);
+            return partitions != null ? partitions.size() : 0;
+        } catch (RuntimeException e) {
+            log.warn("Could not read the partitions of {}, splitting bulk chunks per symbol", BULK_TOPIC, e);
+            return 0;
+        }
+    }
+
+    // The partition the producer's default partitioner picks for a record keyed by this symbol
+    static int bulkPartition(String symbol, int partitions) {
+        return Utils.toPositive(Utils.murmur2(String.valueOf(symbol).getBytes(StandardCharsets.UTF_8))) % partitions;
+    }
+
+    // Binary replies arrive typed; JSON replies arrive as maps and are read field by field rather
+    // than written back to JSON and parsed again
+    private TransactionStatusDto toTransactionStatus(Object status) {
+        if (status instanceof TransactionStatusDto transactionStatus) {
+            return transactionStatus;
+        } else if (status instanceof Map<?, ?> map) {
+            return new TransactionStatusDto(Boolean.TRUE.equals(map.get("status")), (String) map.get("message"));
+        } else {
+            return null;
         }
     }
 
-    public ResponseEntity<Object> getMarketDataSpecific (String symbol, String source) {
+    @PreDestroy
+    public void stop() {
+        bulkExecutor.shutdownNow();
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> getMarketDataSpecific(String symbol, String source) {
         String correlationId = generateCorrelationId();
-        CompletableFuture<Object> future = new CompletableFuture<>();
-        pendingRequests.put(correlationId, future);
 
         GetSpecificRequest kafkaRequest = new GetSpecificRequest(correlationId, symbol, source);
 
@@ -82,12 +381,16 @@ public class MarketDataApiBroker {
         Message<GetSpecificRequest> message = MessageBuilder
                 .withPayload(kafkaRequest)
                 .setHeader(KafkaHeaders.TOPIC, "market-data-query-specific")
+                .setHeader(KafkaHeaders.KEY, symbol)
+                .setHeader(KafkaHeaders.REPLY_TOPIC, replyTopic)
+                .setHeader(KafkaHeaders.REPLY_PARTITION, replyPartition)
                 .build();
 
-        kafkaTemplate.send(message);
+        return sendRequest(correlationId, message).handle((result, ex) -> {
+            if (ex != null) {
+                return errorResponse(ex);
+            }
 
-        try {
-            Object result = future.join();
             log.warn("Sending market data query specific response");
 
             if (result != null) {
@@ -95,17 +398,11 @@ public class MarketDataApiBroker {
             } else {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Market data not found.");
             }
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().body("Error in Kafka.");
-        } finally {
-            pendingRequests.remove(correlationId);
-        }
+        });
     }
 
-    public ResponseEntity<Object> getMarketDataConsolidated(String symbol) {
+    public CompletableFuture<ResponseEntity<Object>> getMarketDataConsolidated(String symbol) {
         String correlationId = generateCorrelationId();
-        CompletableFuture<Object> future = new CompletableFuture<>();
-        pendingRequests.put(correlationId, future);
 
         GetConsolidatedRequest kafkaRequest = new GetConsolidatedRequest(correlationId, symbol);
 
@@ -114,12 +411,16 @@ public class MarketDataApiBroker {
         Message<GetConsolidatedRequest> message = MessageBuilder
                 .withPayload(kafkaRequest)
                 .setHeader(KafkaHeaders.TOPIC, "market-data-query-consolidated")
+                .setHeader(KafkaHeaders.KEY, symbol)
+                .setHeader(KafkaHeaders.REPLY_TOPIC, replyTopic)
+                .setHeader(KafkaHeaders.REPLY_PARTITION, replyPartition)
                 .build();
 
-        kafkaTemplate.send(message);
+        return sendRequest(correlationId, message).handle((result, ex) -> {
+            if (ex != null) {
+                return errorResponse(ex);
+            }
 
-        try {
-            Object result = future.join();
             log.warn("Sending market data query consolidated response");
 
             if (result != null) {
@@ -127,17 +428,11 @@ public class MarketDataApiBroker {
             } else {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Market data not found.");
             }
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().body("Error in Kafka.");
-        } finally {
-            pendingRequests.remove(correlationId);
-        }
+        });
     }
 
-    public ResponseEntity<Object> getMarketDataBatch(List<String> request) {
+    public CompletableFuture<ResponseEntity<Object>> getMarketDataBatch(List<String> request) {
         String correlationId = generateCorrelationId();
-        CompletableFuture<Object> future = new CompletableFuture<>();
-        pendingRequests.put(correlationId, future);
 
         GetConsolidatedBatchRequest kafkaRequest = new GetConsolidatedBatchRequest(correlationId, request);
 
@@ -146,12 +441,15 @@ public class MarketDataApiBroker {
         Message<GetConsolidatedBatchRequest> message = MessageBuilder
                 .withPayload(kafkaRequest)
                 .setHeader(KafkaHeaders.TOPIC, "market-data-query-consolidated-batch")
+                .setHeader(KafkaHeaders.REPLY_TOPIC, replyTopic)
+                .setHeader(KafkaHeaders.REPLY_PARTITION, replyPartition)
                 .build();
 
-        kafkaTemplate.send(message);
+        return sendRequest(correlationId, message).handle((result, ex) -> {
+            if (ex != null) {
+                return errorResponse(ex);
+            }
 
-        try {
-            Object result = future.join();
             log.warn("Sending market data query consolidated batch response");
 
             if (result != null) {
@@ -159,17 +457,35 @@ public class MarketDataApiBroker {
             } else {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Market data not found.");
             }
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().body("Error in Kafka.");
-        } finally {
-            pendingRequests.remove(correlationId);
+        });
+    }
+
+    // Emits the batch as the ordered chunks core sends, so neither side holds the whole result
+    public Flux<Object> streamMarketDataBatch(List<String> request) {
+        String correlationId = generateCorrelationId();
+
+        GetConsolidatedBatchRequest kafkaRequest = new GetConsolidatedBatchRequest(correlationId, request, batchStreamChunkSize);
+
+        log.warn("Sending market data query consolidated batch stream request");
+
+        Message<GetConsolidatedBatchRequest> message = MessageBuilder
+                .withPayload(kafkaRequest)
+                .setHeader(KafkaHeaders.TOPIC, "market-data-query-consolidated-batch")
+                .setHeader(KafkaHeaders.REPLY_TOPIC, replyTopic)
+                .setHeader(KafkaHeaders.REPLY_PARTITION, replyPartition)
+                .build();
+
+        Flux<Object> chunks = pendingRequestRegistry.registerStream(correlationId);
+
+        if (pendingRequestRegistry.isStreaming(correlationId)) {
+            send(correlationId, message);
         }
+
+        return chunks;
     }
 
-    public ResponseEntity<Object> deleteMarketData(String symbol, String source) {
+    public CompletableFuture<ResponseEntity<Object>> deleteMarketData(String symbol, String source) {
         String correlationId = generateCorrelationId();
-        CompletableFuture<Object> future = new CompletableFuture<>();
-        pendingRequests.put(correlationId, future);
 
         DeleteRequest kafkaRequest = new DeleteRequest(correlationId, symbol, source);
 
@@ -178,41 +494,69 @@ public class MarketDataApiBroker {
         Message<DeleteRequest> message = MessageBuilder
                 .withPayload(kafkaRequest)
                 .setHeader(KafkaHeaders.TOPIC, "market-data-delete")
+                .setHeader(KafkaHeaders.KEY, symbol)
+                .setHeader(KafkaHeaders.REPLY_TOPIC, replyTopic)
+                .setHeader(KafkaHeaders.REPLY_PARTITION, replyPartition)
                 .build();
 
-        kafkaTemplate.send(message);
+        return sendRequest(correlationId, message).handle((data, ex) -> {
+            if (ex != null) {
+                return errorResponse(ex);
+            }
 
-        try {
             log.warn("Sending market data delete response");
 
-            ObjectMapper mapper = new ObjectMapper();
-            String jsonResult = mapper.writeValueAsString(future.join());
-            TransactionStatusDto result = mapper.readValue(jsonResult, TransactionStatusDto.class);
+            TransactionStatusDto result = toTransactionStatus(data);
 
-            if (result.getStatus()) {
+            if (result == null) {
+                return ResponseEntity.internalServerError().body("Error in Kafka.");
+            } else if (result.getStatus()) {
                 return ResponseEntity.status(HttpStatus.ACCEPTED).body(result.getMessage());
             } else {
                 return ResponseEntity.badRequest().body(result.getMessage());
             }
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().body("Error in Kafka.");
-        } finally {
-            pendingRequests.remove(correlationId);
-        }
+        });
     }
 
-    @KafkaListener(topics = "market-data-response", groupId = "market-data-api")
-    public void handleCoreResponse(KafkaResponse response) {
+    @KafkaListener(
+            id = REPLY_LISTENER_ID,
+            groupId = "market-data-api-${market-data.api.reply-partition}",
+            topicPartitions = @TopicPartition(topic = "${market-data.api.reply-topic:market-data-response}", partitions = "${market-data.api.reply-partition}"),
+            properties = "auto.offset.reset=${market-data.api.reply-offset-reset:latest}")
+    public void handleCoreResponse(KafkaResponse response, @Headers Map<String, Object> headers) {
+        long receivedMicros = TimingHeaders.nowMicros();
+        CorrelationCompletedEvent event = new CorrelationCompletedEvent();
+        event.begin();
+
         String correlationId = response.getCorrelationId();
         Object data = response.getData();
 
+        // A streamed reply is timed once, on its last chunk
+        if (!Boolean.FALSE.equals(response.getLast())) {
+            stageMetrics.record(headers, receivedMicros);
+        }
+
         log.warn("Received market data response");
-        CompletableFuture<Object> future = pendingRequests.get(correlationId);
+        log.error("Data: {}", data);
+
+        boolean matched;
+
+        if (response.getSequence() != null) {
+            matched = pendingRequestRegistry.emit(correlationId, data, Boolean.TRUE.equals(response.getLast()));
+        } else {
+            matched = pendingRequestRegistry.complete(correlationId, data);
+        }
+
+        event.end();
 
-        if (future != null) {
-            log.warn("Completing future");
-            log.error("Data: {}", data);
-            future.complete(data);
+        if (event.shouldCommit()) {
+            event.correlationId = correlationId;
+            event.operation = headers.get(TimingHeaders.OPERATION) instanceof byte[] operation ? new String(operation, StandardCharsets.UTF_8) : null;
+            event.chunk = response.getSequence() != null;
+            event.last = !Boolean.FALSE.equals(response.getLast());
+            event.matched = matched;
+            event.rowCount = data instanceof List<?> rows ? rows.size() : data != null ? 1 : 0;
+            event.commit();
         }
     }
 }
@@ -0,0 +1,225 @@
+package com.scorpion.marketdata.api.broker;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Component
+public class PendingRequestRegistry {
+    private static final Logger log = LoggerFactory.getLogger(PendingRequestRegistry.class);
+    private static final Sinks.EmitFailureHandler RETRY_CONCURRENT_EMIT = Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100));
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> pendingRequests = new ConcurrentHashMap<>();
+    // Streamed replies; each sink buffers a bounded number of chunks and fails the stream on overflow
+    private final ConcurrentHashMap<String, Sinks.Many<Object>> pendingStreams = new ConcurrentHashMap<>();
+    // Correlation ids that expired recently, kept so a reply arriving after its deadline is counted as late, not orphaned
+    private final ConcurrentHashMap<String, Boolean> expiredRequests = new ConcurrentHashMap<>();
+    private final HashedWheelTimer timer;
+    private final Semaphore capacity;
+    private final long timeoutMs;
+    private final long lateReplyRetentionMs;
+    private final int streamBufferChunks;
+    private final Counter timeouts;
+    private final Counter lateReplies;
+    private final Counter orphanedReplies;
+    private final Counter rejections;
+
+    public PendingRequestRegistry(MeterRegistry meterRegistry,
+                                  @Value("${market-data.api.pending-requests.timeout-ms:10000}") long timeoutMs,
+                                  @Value("${market-data.api.pending-requests.max-in-flight:50000}") int maxInFlight,
+                                  @Value("${market-data.api.pending-requests.timer-tick-ms:10}") long timerTickMs,
+                                  @Value("${market-data.api.pending-requests.late-reply-retention-ms:60000}") long lateReplyRetentionMs,
+                                  @Value("${market-data.api.pending-requests.stream-buffer-chunks:16}") int streamBufferChunks) {
+        this.timer = new HashedWheelTimer(runnable -> {
+            Thread thread = new Thread(runnable, "pending-request-timer");
+            thread.setDaemon(true);
+            return thread;
+        }, timerTickMs, TimeUnit.MILLISECONDS);
+        this.capacity = new Semaphore(maxInFlight);
+        this.timeoutMs = timeoutMs;
+        this.lateReplyRetentionMs = lateReplyRetentionMs;
+        this.streamBufferChunks = streamBufferChunks;
+
+        this.timeouts = Counter.builder("market.data.api.requests.timeouts")
+                .description("Requests that expired before core replied")
+                .register(meterRegistry);
+        this.lateReplies = Counter.builder("market.data.api.replies.late")
+                .description("Replies received after their request had expired")
+                .register(meterRegistry);
+        this.orphanedReplies = Counter.builder("market.data.api.replies.orphaned")
+                .description("Replies received for unknown correlation ids")
+                .register(meterRegistry);
+        this.rejections = Counter.builder("market.data.api.requests.rejected")
+                .description("Requests rejected because the in-flight limit was reached")
+                .register(meterRegistry);
+        meterRegistry.gauge("market.data.api.requests.in.flight", this, PendingRequestRegistry::size);
+    }
+
+    public CompletableFuture<Object> register(String correlationId) {
+        if (!capacity.tryAcquire()) {
+            rejections.increment();
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Too many in-flight market data requests."));
+        }
+
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        pendingRequests.put(correlationId, future);
+
+        Timeout timeout = timer.newTimeout(t -> expire(correlationId), timeoutMs, TimeUnit.MILLISECONDS);
+
+        future.whenComplete((result, ex) -> {
+            timeout.cancel();
+
+            if (pendingRequests.remove(correlationId) != null) {
+                capacity.release();
+            }
+        });
+
+        return future;
+    }
+
+    // The deadline covers the whole stream, not each chunk
+    public Flux<Object> registerStream(String correlationId) {
+        if (!capacity.tryAcquire()) {
+            rejections.increment();
+            return Flux.error(new RejectedExecutionException("Too many in-flight market data requests."));
+        }
+
+        Sinks.Many<Object> sink = Sinks.many().unicast().onBackpressureBuffer(Queues.<Object>get(streamBufferChunks).get());
+        pendingStreams.put(correlationId, sink);
+
+        Timeout timeout = timer.newTimeout(t -> expireStream(correlationId), timeoutMs, TimeUnit.MILLISECONDS);
+
+        return sink.asFlux().doFinally(signal -> {
+            timeout.cancel();
+            releaseStream(correlationId);
+        });
+    }
+
+    public boolean isStreaming(String correlationId) {
+        return pendingStreams.containsKey(correlationId);
+    }
+
+    // False when no request is waiting for the reply
+    public boolean complete(String correlationId, Object data) {
+        CompletableFuture<Object> future = correlationId != null ? pendingRequests.get(correlationId) : null;
+
+        if (future != null) {
+            future.complete(data);
+            return true;
+        } else {
+            unmatchedReply(correlationId);
+            return false;
+        }
+    }
+
+    // Chunks arrive in order because core sends every chunk of a stream to the same reply partition
+    public boolean emit(String correlationId, Object data, boolean last) {
+        Sinks.Many<Object> sink = correlationId != null ? pendingStreams.get(correlationId) : null;
+
+        if (sink == null) {
+            unmatchedReply(correlationId);
+            return false;
+        }
+
+        if (data != null) {
+            sink.emitNext(data, RETRY_CONCURRENT_EMIT);
+        }
+
+        if (last) {
+            sink.emitComplete(RETRY_CONCURRENT_EMIT);
+        }
+
+        return true;
+    }
+
+    // Fails a request whose message never reached Kafka, instead of leaving it to the deadline
+    public void fail(String correlationId, Throwable ex) {
+        CompletableFuture<Object> future = pendingRequests.get(correlationId);
+
+        if (future != null) {
+            future.completeExceptionally(ex);
+            return;
+        }
+
+        Sinks.Many<Object> sink = pendingStreams.get(correlationId);
+
+        if (sink != null) {
+            sink.emitError(ex, RETRY_CONCURRENT_EMIT);
+            releaseStream(correlationId);
+        }
+    }
+
+    public int size() {
+        return pendingRequests.size() + pendingStreams.size();
+    }
+
+    private void unmatchedReply(String correlationId) {
+        if (correlationId != null && expiredRequests.remove(correlationId) != null) {
+            lateReplies.increment();
+            log.warn("Late reply for expired request {}", correlationId);
+        } else {
+            orphanedReplies.increment();
+            log.warn("Orphaned reply for unknown request {}", correlationId);
+        }
+    }
+
+    private void expire(String correlationId) {
+        CompletableFuture<Object> future = pendingRequests.get(correlationId);
+
+        if (future == null) {
+            return;
+        }
+
+        expiredRequests.put(correlationId, Boolean.TRUE);
+
+        if (future.completeExceptionally(new TimeoutException("No reply from market data core within " + timeoutMs + " ms."))) {
+            timeouts.increment();
+            timer.newTimeout(t -> expiredRequests.remove(correlationId), lateReplyRetentionMs, TimeUnit.MILLISECONDS);
+        } else {
+            expiredRequests.remove(correlationId);
+        }
+    }
+
+    private void expireStream(String correlationId) {
+        Sinks.Many<Object> sink = pendingStreams.get(correlationId);
+
+        if (sink == null) {
+            return;
+        }
+
+        expiredRequests.put(correlationId, Boolean.TRUE);
+        timeouts.increment();
+        timer.newTimeout(t -> expiredRequests.remove(correlationId), lateReplyRetentionMs, TimeUnit.MILLISECONDS);
+
+        sink.emitError(new TimeoutException("Stream from market data core not completed within " + timeoutMs + " ms."), RETRY_CONCURRENT_EMIT);
+        // Releases the slot even if the stream was never subscribed
+        releaseStream(correlationId);
+    }
+
+    private void releaseStream(String correlationId) {
+        if (pendingStreams.remove(correlationId) != null) {
+            capacity.release();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        timer.stop();
+    }
+}
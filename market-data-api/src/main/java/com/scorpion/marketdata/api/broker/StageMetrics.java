@@ -0,0 +1,64 @@
+package com.scorpion.marketdata.api.broker;
+
+import com.scorpion.marketdata.core.timing.TimingHeaders;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// market.data.api.stage{operation, stage}, with percentile histograms, from the timestamps core
+// returns on each reply:
+// request.kafka  API send -> core receive (Kafka transit and consumer lag; cross-host clocks)
+// core.queue     core receive -> processing start (batch and conflation waits)
+// core.process   the service call, including the database transaction for writes
+// core.reply     processing end -> reply handed to core's producer
+// reply.kafka    core reply -> API receive (cross-host clocks)
+// total          API send -> API receive, on this host's clock only
+@Component
+public class StageMetrics {
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public StageMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    void record(Map<String, Object> headers, long receivedMicros) {
+        if (!(headers.get(TimingHeaders.OPERATION) instanceof byte[] operationHeader)) {
+            return;
+        }
+
+        String operation = new String(operationHeader, StandardCharsets.UTF_8);
+        long apiSent = TimingHeaders.get(headers, TimingHeaders.API_SENT);
+        long coreReceived = TimingHeaders.get(headers, TimingHeaders.CORE_RECEIVED);
+        long processStarted = TimingHeaders.get(headers, TimingHeaders.CORE_PROCESS_STARTED);
+        long processEnded = TimingHeaders.get(headers, TimingHeaders.CORE_PROCESS_ENDED);
+        long replySent = TimingHeaders.get(headers, TimingHeaders.CORE_REPLY_SENT);
+
+        if (apiSent >= 0) {
+            record(operation, "request.kafka", coreReceived - apiSent);
+            record(operation, "total", receivedMicros - apiSent);
+        }
+
+        record(operation, "core.queue", processStarted - coreReceived);
+        record(operation, "core.process", processEnded - processStarted);
+        record(operation, "core.reply", replySent - processEnded);
+        record(operation, "reply.kafka", receivedMicros - replySent);
+    }
+
+    // Negative spans come from clock skew between hosts or missing headers and are dropped
+    private void record(String operation, String stage, long micros) {
+        if (micros >= 0) {
+            timers.computeIfAbsent(operation + ":" + stage, key -> Timer.builder("market.data.api.stage")
+                    .description("Time spent in each stage of a market data request")
+                    .tag("operation", operation)
+                    .tag("stage", stage)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)).record(micros, TimeUnit.MICROSECONDS);
+        }
+    }
+}
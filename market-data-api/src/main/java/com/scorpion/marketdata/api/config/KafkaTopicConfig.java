@@ -17,6 +17,15 @@ public class KafkaTopicConfig {
                 .build();
     }
 
+    @Bean
+    public NewTopic marketDataUpdateBatchTopic() {
+        return TopicBuilder
+                .name("market-data-update-batch")
+                .partitions(10)
+                .replicas(3)
+                .build();
+    }
+
     @Bean
     public NewTopic marketDataQuerySpecificTopic() {
         return TopicBuilder
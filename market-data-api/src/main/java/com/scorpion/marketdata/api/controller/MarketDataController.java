@@ -1,11 +1,21 @@
 package com.scorpion.marketdata.api.controller;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scorpion.marketdata.api.broker.ConsolidatedSubscriptionHub;
 import com.scorpion.marketdata.api.broker.MarketDataApiBroker;
 import com.scorpion.marketdata.api.dto.*;
+import com.scorpion.marketdata.core.dto.ConsolidatedEvent;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -15,59 +25,69 @@ import org.slf4j.LoggerFactory;
 public class MarketDataController {
     private static final Logger log = LoggerFactory.getLogger(MarketDataController.class);
     private final MarketDataApiBroker marketDataApiBroker;
+    private final ConsolidatedSubscriptionHub consolidatedSubscriptionHub;
+    private final ObjectMapper objectMapper;
 
-    public MarketDataController(MarketDataApiBroker marketDataApiBroker) {
+    public MarketDataController(MarketDataApiBroker marketDataApiBroker, ConsolidatedSubscriptionHub consolidatedSubscriptionHub, ObjectMapper objectMapper) {
         this.marketDataApiBroker = marketDataApiBroker;
+        this.consolidatedSubscriptionHub = consolidatedSubscriptionHub;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
-    public ResponseEntity<Object> saveMarketData(@RequestBody MarketDataRequestBody request) {
-        ResponseEntity<Object> response = marketDataApiBroker.saveMarketData(request);
+    public CompletableFuture<ResponseEntity<Object>> saveMarketData(@RequestBody MarketDataRequestBody request) {
+        return marketDataApiBroker.saveMarketData(request).thenApply(this::orBadRequest);
+    }
 
-        if (response != null) {
-            return response;
-        } else {
-            return ResponseEntity.badRequest().body("Bad HTTP request.");
-        }
+    // Accepts a JSON array or NDJSON; records are parsed as they are read rather than buffered, on the
+    // broker's bulk threads, so the servlet thread is released at once
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public CompletableFuture<ResponseEntity<Object>> saveMarketDataBulk(InputStream body) throws IOException {
+        MappingIterator<MarketDataRequestBody> records = objectMapper.readerFor(MarketDataRequestBody.class).readValues(body);
+
+        return marketDataApiBroker.saveMarketDataBulk(records).whenComplete((response, ex) -> {
+            try {
+                records.close();
+            } catch (IOException e) {
+                log.warn("Failed to close bulk request body", e);
+            }
+        });
     }
 
     @GetMapping("/source")
-    public ResponseEntity<Object> getMarketDataSpecific(@RequestParam String symbol, @RequestParam String source) {
-        ResponseEntity<Object> response = marketDataApiBroker.getMarketDataSpecific(symbol, source);
-
-        if (response != null) {
-            return response;
-        } else {
-            return ResponseEntity.badRequest().body("Bad HTTP request.");
-        }
+    public CompletableFuture<ResponseEntity<Object>> getMarketDataSpecific(@RequestParam String symbol, @RequestParam String source) {
+        return marketDataApiBroker.getMarketDataSpecific(symbol, source).thenApply(this::orBadRequest);
     }
 
     @GetMapping("/consolidated/{symbol}")
-    public ResponseEntity<Object> getMarketDataConsolidated(@PathVariable String symbol) {
-        ResponseEntity<Object> response = marketDataApiBroker.getMarketDataConsolidated(symbol);
-
-        if (response != null) {
-            return response;
-        } else {
-            return ResponseEntity.badRequest().body("Bad HTTP request.");
-        }
+    public CompletableFuture<ResponseEntity<Object>> getMarketDataConsolidated(@PathVariable String symbol) {
+        return marketDataApiBroker.getMarketDataConsolidated(symbol).thenApply(this::orBadRequest);
     }
 
     @GetMapping("/batch")
-    public ResponseEntity<Object> getMarketDataBatch(@RequestBody List<String> request) {
-        ResponseEntity<Object> response = marketDataApiBroker.getMarketDataBatch(request);
+    public CompletableFuture<ResponseEntity<Object>> getMarketDataBatch(@RequestBody List<String> request) {
+        return marketDataApiBroker.getMarketDataBatch(request).thenApply(this::orBadRequest);
+    }
 
-        if (response != null) {
-            return response;
-        } else {
-            return ResponseEntity.badRequest().body("Bad HTTP request.");
-        }
+    // One JSON array per line, each a chunk of the batch in request order
+    @GetMapping(value = "/batch/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Object> streamMarketDataBatch(@RequestBody List<String> request) {
+        return marketDataApiBroker.streamMarketDataBatch(request);
+    }
+
+    // Pushes consolidated changes for the given symbols; fetch /consolidated or /batch first for a snapshot
+    @GetMapping(value = "/subscribe", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<ConsolidatedEvent>> subscribe(@RequestParam List<String> symbols) {
+        return consolidatedSubscriptionHub.subscribe(symbols)
+                .map(event -> ServerSentEvent.builder(event).event("consolidated").build());
     }
 
     @DeleteMapping("/{symbol}/{source}")
-    public ResponseEntity<Object> deleteMarketData(@PathVariable String symbol, @PathVariable String source) {
-        ResponseEntity<Object> response = marketDataApiBroker.deleteMarketData(symbol, source);
+    public CompletableFuture<ResponseEntity<Object>> deleteMarketData(@PathVariable String symbol, @PathVariable String source) {
+        return marketDataApiBroker.deleteMarketData(symbol, source).thenApply(this::orBadRequest);
+    }
 
+    private ResponseEntity<Object> orBadRequest(ResponseEntity<Object> response) {
         if (response != null) {
             return response;
         } else {
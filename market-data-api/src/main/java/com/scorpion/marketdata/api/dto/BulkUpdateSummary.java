@@ -0,0 +1,99 @@
+package com.scorpion.marketdata.api.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BulkUpdateSummary {
+    // Only the first failures are listed; failed counts all of them
+    private static final int MAX_LISTED_FAILURES = 1000;
+
+    private int total;
+    private int succeeded;
+    private int failed;
+    private final List<Failure> failures = new ArrayList<>();
+    private String error;
+    private long elapsedMs;
+
+    public void succeeded() {
+        total++;
+        succeeded++;
+    }
+
+    public void failed(int index, MarketDataRequestBody marketData, String message) {
+        total++;
+        failed++;
+
+        if (failures.size() < MAX_LISTED_FAILURES) {
+            failures.add(new Failure(index,
+                    marketData != null ? marketData.getSymbol() : null,
+                    marketData != null ? marketData.getSource() : null,
+                    message));
+        }
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public List<Failure> getFailures() {
+        return failures;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    public void setElapsedMs(long elapsedMs) {
+        this.elapsedMs = elapsedMs;
+    }
+
+    public double getItemsPerSecond() {
+        return elapsedMs > 0 ? total * 1000.0 / elapsedMs : total;
+    }
+
+    public static class Failure {
+        private final int index;
+        private final String symbol;
+        private final String source;
+        private final String message;
+
+        public Failure(int index, String symbol, String source, String message) {
+            this.index = index;
+            this.symbol = symbol;
+            this.source = source;
+            this.message = message;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public String getSymbol() {
+            return symbol;
+        }
+
+        public String getSource() {
+            return source;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.scorpion.marketdata.api.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// A core reply matched to its pending request. The duration includes completing the caller's
+// future, which runs the response mapping on the reply listener thread.
+@Name("com.scorpion.marketdata.api.CorrelationCompleted")
+@Label("Market Data Correlation Completed")
+@Category({"Market Data", "API"})
+@Description("A core reply delivered to its pending request")
+@StackTrace(false)
+public class CorrelationCompletedEvent extends Event {
+    @Label("Correlation Id")
+    public String correlationId;
+
+    @Label("Operation")
+    @Description("Request topic, from the reply's timing headers")
+    public String operation;
+
+    @Label("Stream Chunk")
+    public boolean chunk;
+
+    @Label("Last")
+    public boolean last;
+
+    @Label("Matched")
+    @Description("False for late and orphaned replies")
+    public boolean matched;
+
+    @Label("Row Count")
+    @Description("Rows in a list reply, 1 for a single result, 0 for none")
+    public int rowCount;
+}
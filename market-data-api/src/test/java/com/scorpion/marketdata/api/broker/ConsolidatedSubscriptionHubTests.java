@@ -0,0 +1,49 @@
+package com.scorpion.marketdata.api.broker;
+
+import com.scorpion.marketdata.core.dto.ConsolidatedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsolidatedSubscriptionHubTests {
+    private final ConsolidatedSubscriptionHub hub = new ConsolidatedSubscriptionHub(new SimpleMeterRegistry());
+
+    @Test
+    void slowSubscriberReceivesOnlyLatestEventPerSymbol() {
+        List<Object> received = new CopyOnWriteArrayList<>();
+        BaseSubscriber<ConsolidatedEvent> subscriber = new BaseSubscriber<>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                // No demand yet: events must be conflated, not queued
+            }
+
+            @Override
+            protected void hookOnNext(ConsolidatedEvent event) {
+                received.add(event.getData());
+            }
+        };
+
+        hub.subscribe(List.of("A", "B")).subscribe(subscriber);
+
+        hub.handleConsolidatedEvent(new ConsolidatedEvent("A", 1));
+        hub.handleConsolidatedEvent(new ConsolidatedEvent("A", 2));
+        hub.handleConsolidatedEvent(new ConsolidatedEvent("C", 9));
+        hub.handleConsolidatedEvent(new ConsolidatedEvent("B", 3));
+        hub.handleConsolidatedEvent(new ConsolidatedEvent("A", 4));
+
+        subscriber.request(10);
+
+        assertEquals(List.of(4, 3), received);
+
+        subscriber.dispose();
+        hub.handleConsolidatedEvent(new ConsolidatedEvent("A", 5));
+
+        assertEquals(List.of(4, 3), received);
+    }
+}
@@ -0,0 +1,88 @@
+package com.scorpion.marketdata.api.broker;
+
+import com.scorpion.marketdata.api.dto.BatchUpdateRequest;
+import com.scorpion.marketdata.api.dto.BulkUpdateSummary;
+import com.scorpion.marketdata.api.dto.MarketDataRequestBody;
+import com.scorpion.marketdata.core.dto.KafkaResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.PartitionInfo;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.Message;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MarketDataApiBrokerBulkTests {
+    private static final int PARTITIONS = 10;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void sendsEachSymbolToItsPartitionInOrderAndSummarisesPerItemStatus() throws Exception {
+        KafkaTemplate<String, Object> kafkaTemplate = mock(KafkaTemplate.class);
+        PendingRequestRegistry registry = new PendingRequestRegistry(new SimpleMeterRegistry(), 10_000, 100, 10, 60_000, 16);
+        MarketDataApiBroker broker = new MarketDataApiBroker(kafkaTemplate, registry, new StageMetrics(new SimpleMeterRegistry()), "market-data-response", 0, 500, 1000, 2, 1);
+        List<Message<BatchUpdateRequest>> sentMessages = new CopyOnWriteArrayList<>();
+
+        when(kafkaTemplate.partitionsFor("market-data-update-batch")).thenReturn(IntStream.range(0, PARTITIONS)
+                .mapToObj(partition -> new PartitionInfo("market-data-update-batch", partition, null, null, null))
+                .toList());
+
+        // Stands in for core: every record whose symbol starts with BAD is rejected
+        when(kafkaTemplate.send(any(Message.class))).thenAnswer(invocation -> {
+            Message<BatchUpdateRequest> message = invocation.getArgument(0);
+            sentMessages.add(message);
+
+            List<Map<String, Object>> statuses = message.getPayload().getMarketData().stream()
+                    .map(marketData -> Map.<String, Object>of("status", !marketData.getSymbol().startsWith("BAD"), "message", "checked"))
+                    .toList();
+            broker.handleCoreResponse(new KafkaResponse(message.getPayload().getCorrelationId(), statuses), Map.of());
+            return CompletableFuture.completedFuture(null);
+        });
+
+        // The last traded price is the record's index, so the order each symbol was sent in can be checked
+        List<MarketDataRequestBody> records = IntStream.range(0, 2_500)
+                .mapToObj(i -> new MarketDataRequestBody((i % 1000 == 7 ? "BAD" : "SYM") + i % 50, (double) i, null, null, null, "0", null, "TEST", null, null, null))
+                .toList();
+
+        try {
+            ResponseEntity<Object> response = broker.saveMarketDataBulk(records.iterator()).get(10, TimeUnit.SECONDS);
+            BulkUpdateSummary summary = (BulkUpdateSummary) response.getBody();
+            Map<String, Double> lastSent = new HashMap<>();
+
+            for (Message<BatchUpdateRequest> message : sentMessages) {
+                int partition = (Integer) message.getHeaders().get(KafkaHeaders.PARTITION);
+
+                for (MarketDataRequestBody marketData : message.getPayload().getMarketData()) {
+                    assertEquals(MarketDataApiBroker.bulkPartition(marketData.getSymbol(), PARTITIONS), partition);
+                    assertTrue(lastSent.getOrDefault(marketData.getSymbol(), -1.0) < marketData.getLastTradedPrice());
+                    lastSent.put(marketData.getSymbol(), marketData.getLastTradedPrice());
+                }
+            }
+
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertTrue(sentMessages.size() > 3);
+            assertEquals(2_500, summary.getTotal());
+            assertEquals(2_497, summary.getSucceeded());
+            assertEquals(List.of(7, 1007, 2007), summary.getFailures().stream().map(BulkUpdateSummary.Failure::getIndex).sorted().toList());
+            assertNull(summary.getError());
+            assertEquals(0, registry.size());
+        } finally {
+            broker.stop();
+            registry.stop();
+        }
+    }
+}
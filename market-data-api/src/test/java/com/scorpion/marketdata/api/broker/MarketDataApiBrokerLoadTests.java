@@ -0,0 +1,73 @@
+package com.scorpion.marketdata.api.broker;
+
+import com.scorpion.marketdata.api.dto.MarketDataRequestBody;
+import com.scorpion.marketdata.api.dto.UpdateRequest;
+import com.scorpion.marketdata.core.dto.KafkaResponse;
+import com.scorpion.marketdata.core.dto.TransactionStatusDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.messaging.Message;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MarketDataApiBrokerLoadTests {
+    private static final int SERVLET_THREADS = 8;
+    private static final int IN_FLIGHT_REQUESTS = 10_000;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void inFlightRequestsAreNotBoundByServletThreads() throws Exception {
+        KafkaTemplate<String, Object> kafkaTemplate = mock(KafkaTemplate.class);
+        Queue<Message<?>> sentMessages = new ConcurrentLinkedQueue<>();
+        when(kafkaTemplate.send(any(Message.class))).thenAnswer(invocation -> {
+            sentMessages.add(invocation.getArgument(0));
+            return CompletableFuture.completedFuture(null);
+        });
+
+        PendingRequestRegistry registry = new PendingRequestRegistry(new SimpleMeterRegistry(), 60_000, IN_FLIGHT_REQUESTS, 10, 60_000, 16);
+        MarketDataApiBroker broker = new MarketDataApiBroker(kafkaTemplate, registry, new StageMetrics(new SimpleMeterRegistry()), "market-data-response", 0, 500, 1000, 4, 1);
+        ExecutorService servletThreads = Executors.newFixedThreadPool(SERVLET_THREADS);
+        List<Future<CompletableFuture<ResponseEntity<Object>>>> submissions = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < IN_FLIGHT_REQUESTS; i++) {
+                MarketDataRequestBody request = new MarketDataRequestBody("SYM" + i, 1.0, 1.0, 1.0, 1.0, "0", null, "TEST", null, null, null);
+                submissions.add(servletThreads.submit(() -> broker.saveMarketData(request)));
+            }
+
+            List<CompletableFuture<ResponseEntity<Object>>> responses = new ArrayList<>();
+            for (Future<CompletableFuture<ResponseEntity<Object>>> submission : submissions) {
+                responses.add(submission.get(10, TimeUnit.SECONDS));
+            }
+
+            // Every request is in flight at once while only SERVLET_THREADS threads ever ran
+            assertEquals(IN_FLIGHT_REQUESTS, sentMessages.size());
+            assertTrue(responses.stream().noneMatch(CompletableFuture::isDone));
+
+            for (Message<?> message : sentMessages) {
+                UpdateRequest updateRequest = (UpdateRequest) message.getPayload();
+                broker.handleCoreResponse(new KafkaResponse(updateRequest.getCorrelationId(), new TransactionStatusDto(true, "Market data saved successfully.")), Map.of());
+            }
+
+            for (CompletableFuture<ResponseEntity<Object>> response : responses) {
+                assertEquals(HttpStatus.CREATED, response.get(10, TimeUnit.SECONDS).getStatusCode());
+            }
+            assertEquals(0, registry.size());
+        } finally {
+            servletThreads.shutdownNow();
+            registry.stop();
+        }
+    }
+}
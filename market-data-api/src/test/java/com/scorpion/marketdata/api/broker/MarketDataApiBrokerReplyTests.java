@@ -0,0 +1,124 @@
+package com.scorpion.marketdata.api.broker;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scorpion.marketdata.api.dto.DeleteRequest;
+import com.scorpion.marketdata.api.dto.MarketDataRequestBody;
+import com.scorpion.marketdata.api.dto.UpdateRequest;
+import com.scorpion.marketdata.core.dto.KafkaResponse;
+import com.scorpion.marketdata.core.dto.TransactionStatusDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.KafkaException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.messaging.Message;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MarketDataApiBrokerReplyTests {
+    private static final int ITERATIONS = 2_000;
+    // About 4.5 KB was measured per reply; the bound leaves headroom for JIT and JDK differences
+    private static final long MAX_REPLY_BYTES_PER_OP = 8 * 1024;
+
+    private final List<Message<?>> sentMessages = new ArrayList<>();
+    private final PendingRequestRegistry registry = new PendingRequestRegistry(new SimpleMeterRegistry(), 60_000, 10_000, 10, 60_000, 16);
+    private final MarketDataApiBroker broker = createBroker();
+
+    @SuppressWarnings("unchecked")
+    private MarketDataApiBroker createBroker() {
+        KafkaTemplate<String, Object> kafkaTemplate = mock(KafkaTemplate.class);
+        when(kafkaTemplate.send(any(Message.class))).thenAnswer(invocation -> {
+            sentMessages.add(invocation.getArgument(0));
+            return CompletableFuture.completedFuture(null);
+        });
+
+        return new MarketDataApiBroker(kafkaTemplate, registry, new StageMetrics(new SimpleMeterRegistry()), "market-data-response", 0, 500, 1000, 4, 1);
+    }
+
+    @AfterEach
+    void stopRegistry() {
+        registry.stop();
+    }
+
+    @Test
+    void mapsJsonAndBinaryRepliesToStatusCodes() {
+        CompletableFuture<ResponseEntity<Object>> saved = broker.saveMarketData(request());
+        CompletableFuture<ResponseEntity<Object>> rejected = broker.saveMarketData(request());
+        CompletableFuture<ResponseEntity<Object>> deleted = broker.deleteMarketData("AAPL", "TEST");
+        CompletableFuture<ResponseEntity<Object>> empty = broker.deleteMarketData("AAPL", "TEST");
+
+        broker.handleCoreResponse(new KafkaResponse(((UpdateRequest) sentMessages.get(0).getPayload()).getCorrelationId(),
+                Map.of("status", true, "message", "Market data saved successfully.")), Map.of());
+        broker.handleCoreResponse(new KafkaResponse(((UpdateRequest) sentMessages.get(1).getPayload()).getCorrelationId(),
+                new TransactionStatusDto(false, "Invalid market data.")), Map.of());
+        broker.handleCoreResponse(new KafkaResponse(((DeleteRequest) sentMessages.get(2).getPayload()).getCorrelationId(),
+                new TransactionStatusDto(true, "Market data deleted successfully.")), Map.of());
+        broker.handleCoreResponse(new KafkaResponse(((DeleteRequest) sentMessages.get(3).getPayload()).getCorrelationId(), null), Map.of());
+
+        assertEquals(HttpStatus.CREATED, saved.join().getStatusCode());
+        assertEquals("Market data saved successfully.", saved.join().getBody());
+        assertEquals(HttpStatus.BAD_REQUEST, rejected.join().getStatusCode());
+        assertEquals(HttpStatus.ACCEPTED, deleted.join().getStatusCode());
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, empty.join().getStatusCode());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void failedSendAnswersWithoutWaitingForTheDeadline() {
+        KafkaTemplate<String, Object> kafkaTemplate = mock(KafkaTemplate.class);
+        when(kafkaTemplate.send(any(Message.class))).thenReturn(CompletableFuture.failedFuture(new KafkaException("Broker unavailable")));
+        MarketDataApiBroker failingBroker = new MarketDataApiBroker(kafkaTemplate, registry, new StageMetrics(new SimpleMeterRegistry()), "market-data-response", 0, 500, 1000, 4, 1);
+
+        ResponseEntity<Object> response = failingBroker.saveMarketData(request()).join();
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        assertEquals(0, registry.size());
+    }
+
+    // Compares the bytes allocated per reply against the former per-call ObjectMapper round trip
+    @Test
+    void replyHandlingAllocatesLessThanJsonRoundTrip() throws Exception {
+        Map<String, Object> reply = Map.of("status", true, "message", "Market data saved successfully.");
+
+        long replyBytes = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            CompletableFuture<ResponseEntity<Object>> response = broker.saveMarketData(request());
+            String correlationId = ((UpdateRequest) sentMessages.get(sentMessages.size() - 1).getPayload()).getCorrelationId();
+
+            long before = allocatedBytes();
+            broker.handleCoreResponse(new KafkaResponse(correlationId, reply), Map.of());
+            response.join();
+            replyBytes += allocatedBytes() - before;
+        }
+
+        long roundTripBytes = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long before = allocatedBytes();
+            ObjectMapper mapper = new ObjectMapper();
+            mapper.readValue(mapper.writeValueAsString(reply), TransactionStatusDto.class);
+            roundTripBytes += allocatedBytes() - before;
+        }
+
+        assertTrue(replyBytes / ITERATIONS < MAX_REPLY_BYTES_PER_OP, "Reply handling allocated " + replyBytes / ITERATIONS + " B/op");
+        assertTrue(replyBytes < roundTripBytes);
+    }
+
+    private static MarketDataRequestBody request() {
+        return new MarketDataRequestBody("AAPL", 1.0, 1.0, 1.0, 1.0, "0", null, "TEST", null, null, null);
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,125 @@
+package com.scorpion.marketdata.api.broker;
+
+import com.scorpion.marketdata.api.MarketDataApiApplication;
+import com.scorpion.marketdata.api.dto.GetConsolidatedRequest;
+import com.scorpion.marketdata.core.dto.KafkaResponse;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The subscription hub's topic must exist as well, since its container is awaited too
+@EmbeddedKafka(partitions = 2, topics = {"market-data-query-consolidated", "market-data-response", "market-data-consolidated-events"})
+class MultiInstanceReplyRoutingTests {
+    private static final int REQUESTS_PER_INSTANCE = 50;
+
+    @Test
+    void everyReplyReachesItsOriginator(EmbeddedKafkaBroker broker) throws Exception {
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread fakeCore = startFakeCore(broker, running);
+
+        try (ConfigurableApplicationContext first = startApiInstance(broker, 0);
+             ConfigurableApplicationContext second = startApiInstance(broker, 1)) {
+            awaitReplyAssignment(first, broker);
+            awaitReplyAssignment(second, broker);
+
+            List<CompletableFuture<ResponseEntity<Object>>> firstResponses = sendRequests(first, "FIRST-");
+            List<CompletableFuture<ResponseEntity<Object>>> secondResponses = sendRequests(second, "SECOND-");
+
+            assertReplies(firstResponses, "FIRST-");
+            assertReplies(secondResponses, "SECOND-");
+        } finally {
+            running.set(false);
+            fakeCore.join(5000);
+        }
+    }
+
+    private ConfigurableApplicationContext startApiInstance(EmbeddedKafkaBroker broker, int replyPartition) {
+        return new SpringApplicationBuilder(MarketDataApiApplication.class).run(
+                "--server.port=0",
+                "--spring.kafka.bootstrap-servers=" + broker.getBrokersAsString(),
+                "--spring.kafka.admin.auto-create=false",
+                "--market-data.api.reply-partition=" + replyPartition,
+                "--market-data.api.reply-offset-reset=earliest");
+    }
+
+    // The reply listener is pinned to the instance's one reply partition; the hub's per-instance group
+    // subscribes to the whole events topic, so it is assigned every partition
+    private void awaitReplyAssignment(ConfigurableApplicationContext context, EmbeddedKafkaBroker broker) {
+        KafkaListenerEndpointRegistry registry = context.getBean(KafkaListenerEndpointRegistry.class);
+        ContainerTestUtils.waitForAssignment(registry.getListenerContainer(MarketDataApiBroker.REPLY_LISTENER_ID), 1);
+        ContainerTestUtils.waitForAssignment(registry.getListenerContainer(ConsolidatedSubscriptionHub.LISTENER_ID), broker.getPartitionsPerTopic());
+    }
+
+    private List<CompletableFuture<ResponseEntity<Object>>> sendRequests(ConfigurableApplicationContext context, String prefix) {
+        MarketDataApiBroker apiBroker = context.getBean(MarketDataApiBroker.class);
+        List<CompletableFuture<ResponseEntity<Object>>> responses = new ArrayList<>();
+
+        for (int i = 0; i < REQUESTS_PER_INSTANCE; i++) {
+            responses.add(apiBroker.getMarketDataConsolidated(prefix + i));
+        }
+
+        return responses;
+    }
+
+    private void assertReplies(List<CompletableFuture<ResponseEntity<Object>>> responses, String prefix) throws Exception {
+        for (int i = 0; i < responses.size(); i++) {
+            ResponseEntity<Object> response = responses.get(i).get(30, TimeUnit.SECONDS);
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertEquals(prefix + i, response.getBody());
+        }
+    }
+
+    // Stands in for market-data-core: echoes the requested symbol back to whatever reply target the request names
+    private Thread startFakeCore(EmbeddedKafkaBroker broker, AtomicBoolean running) {
+        Map<String, Object> consumerProps = KafkaTestUtils.consumerProps("fake-market-data-core", "true", broker);
+        Map<String, Object> producerProps = KafkaTestUtils.producerProps(broker);
+
+        Thread thread = new Thread(() -> {
+            try (KafkaConsumer<String, GetConsolidatedRequest> consumer = new KafkaConsumer<>(consumerProps, new StringDeserializer(), new JsonDeserializer<>(GetConsolidatedRequest.class, false));
+                 KafkaProducer<String, KafkaResponse> producer = new KafkaProducer<>(producerProps, new StringSerializer(), new JsonSerializer<>())) {
+                consumer.subscribe(List.of("market-data-query-consolidated"));
+
+                while (running.get()) {
+                    for (ConsumerRecord<String, GetConsolidatedRequest> record : consumer.poll(Duration.ofMillis(100))) {
+                        String replyTopic = new String(record.headers().lastHeader(KafkaHeaders.REPLY_TOPIC).value(), StandardCharsets.UTF_8);
+                        int replyPartition = ByteBuffer.wrap(record.headers().lastHeader(KafkaHeaders.REPLY_PARTITION).value()).getInt();
+                        KafkaResponse response = new KafkaResponse(record.value().getCorrelationId(), record.value().getSymbol());
+
+                        producer.send(new ProducerRecord<>(replyTopic, replyPartition, null, response));
+                    }
+                }
+            }
+        }, "fake-market-data-core");
+
+        thread.start();
+        return thread;
+    }
+}
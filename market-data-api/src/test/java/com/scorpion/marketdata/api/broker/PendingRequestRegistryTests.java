@@ -0,0 +1,95 @@
+package com.scorpion.marketdata.api.broker;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PendingRequestRegistryTests {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PendingRequestRegistry registry = new PendingRequestRegistry(meterRegistry, 100, 2, 10, 60_000, 16);
+
+    @AfterEach
+    void stopTimer() {
+        registry.stop();
+    }
+
+    @Test
+    void completesRegisteredRequest() throws Exception {
+        CompletableFuture<Object> future = registry.register("a");
+
+        registry.complete("a", "data");
+
+        assertEquals("data", future.get(1, TimeUnit.SECONDS));
+        assertEquals(0, registry.size());
+    }
+
+    @Test
+    void rejectsWhenInFlightLimitIsReached() {
+        registry.register("a");
+        registry.register("b");
+
+        CompletableFuture<Object> rejected = registry.register("c");
+
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> rejected.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, ex.getCause());
+        assertEquals(1.0, meterRegistry.counter("market.data.api.requests.rejected").count());
+    }
+
+    @Test
+    void expiresRequestAndCountsLateReply() {
+        CompletableFuture<Object> future = registry.register("a");
+
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, ex.getCause());
+
+        // The timer thread cleans up and bumps the counter right after failing the future
+        long deadline = System.currentTimeMillis() + 1000;
+        while (meterRegistry.counter("market.data.api.requests.timeouts").count() < 1.0 && System.currentTimeMillis() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertEquals(0, registry.size());
+
+        registry.complete("a", "data");
+        registry.complete("unknown", "data");
+
+        assertEquals(1.0, meterRegistry.counter("market.data.api.requests.timeouts").count());
+        assertEquals(1.0, meterRegistry.counter("market.data.api.replies.late").count());
+        assertEquals(1.0, meterRegistry.counter("market.data.api.replies.orphaned").count());
+    }
+
+    @Test
+    void streamsChunksInOrderUntilLast() {
+        Flux<Object> chunks = registry.registerStream("a");
+
+        registry.emit("a", List.of("x", "y"), false);
+        registry.emit("a", List.of("z"), true);
+
+        assertEquals(List.of(List.of("x", "y"), List.of("z")), chunks.collectList().block(Duration.ofSeconds(1)));
+        assertEquals(0, registry.size());
+    }
+
+    @Test
+    void failReleasesRequestBeforeItsDeadline() {
+        CompletableFuture<Object> future = registry.register("a");
+        Flux<Object> chunks = registry.registerStream("b");
+
+        registry.fail("a", new IllegalStateException("send failed"));
+        registry.fail("b", new IllegalStateException("send failed"));
+
+        assertInstanceOf(IllegalStateException.class, assertThrows(ExecutionException.class, future::get).getCause());
+        assertThrows(IllegalStateException.class, () -> chunks.blockLast(Duration.ofSeconds(1)));
+        assertEquals(0, registry.size());
+        assertEquals(0.0, meterRegistry.counter("market.data.api.requests.timeouts").count());
+    }
+}
@@ -0,0 +1,59 @@
+package com.scorpion.marketdata.api.config;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class KafkaProducerProfileTests {
+
+    @Test
+    void lowLatencySendsEachRecordUncompressed() {
+        Map<String, Object> props = config("low-latency").producerConfigs();
+
+        assertEquals(0, props.get(ProducerConfig.LINGER_MS_CONFIG));
+        assertEquals(16384, props.get(ProducerConfig.BATCH_SIZE_CONFIG));
+        assertEquals("none", props.get(ProducerConfig.COMPRESSION_TYPE_CONFIG));
+        assertDurable(props);
+    }
+
+    @Test
+    void throughputLingersForLargeCompressedBatches() {
+        Map<String, Object> props = config("throughput").producerConfigs();
+
+        assertEquals(10, props.get(ProducerConfig.LINGER_MS_CONFIG));
+        assertEquals(131072, props.get(ProducerConfig.BATCH_SIZE_CONFIG));
+        assertEquals("lz4", props.get(ProducerConfig.COMPRESSION_TYPE_CONFIG));
+        assertDurable(props);
+    }
+
+    @Test
+    void overridesReplaceProfileDefaults() {
+        KafkaProducerConfig config = config("throughput");
+        ReflectionTestUtils.setField(config, "compressionType", "zstd");
+        ReflectionTestUtils.setField(config, "acks", " 1 ");
+
+        Map<String, Object> props = config.producerConfigs();
+
+        assertEquals(10, props.get(ProducerConfig.LINGER_MS_CONFIG));
+        assertEquals("zstd", props.get(ProducerConfig.COMPRESSION_TYPE_CONFIG));
+        assertEquals("1", props.get(ProducerConfig.ACKS_CONFIG));
+        assertEquals(true, props.get(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG));
+    }
+
+    private static void assertDurable(Map<String, Object> props) {
+        assertEquals("all", props.get(ProducerConfig.ACKS_CONFIG));
+        assertEquals(true, props.get(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG));
+    }
+
+    private static KafkaProducerConfig config(String profile) {
+        KafkaProducerConfig config = new KafkaProducerConfig();
+        ReflectionTestUtils.setField(config, "bootstrapServers", "localhost:9092");
+        ReflectionTestUtils.setField(config, "serde", "json");
+        ReflectionTestUtils.setField(config, "profile", profile);
+        return config;
+    }
+}
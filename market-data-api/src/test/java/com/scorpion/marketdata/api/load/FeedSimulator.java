@@ -0,0 +1,112 @@
+package com.scorpion.marketdata.api.load;
+
+import com.scorpion.marketdata.api.dto.MarketDataRequestBody;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+// Synthetic multi-source feed. Symbol popularity follows a Zipf distribution, a share of symbols
+// depend on one of the most active underlyings, and partial ticks carry only some of the prices.
+// Not thread-safe: the load generator draws every operation from its single dispatcher thread.
+class FeedSimulator {
+    private static final String[] SOURCES = {"BLOOMBERG", "REUTERS", "ICE"};
+
+    enum Endpoint {
+        UPDATE, QUERY_SPECIFIC, QUERY_CONSOLIDATED, QUERY_BATCH, DELETE
+    }
+
+    record Operation(Endpoint endpoint, String symbol, String source, MarketDataRequestBody marketData, List<String> symbols) {
+    }
+
+    private final Random random;
+    private final double[] cumulativeWeights;
+    private final String[] underlyings;
+    private final double[] prices;
+    private final LoadProfile profile;
+
+    FeedSimulator(LoadProfile profile, long seed) {
+        this.profile = profile;
+        this.random = new Random(seed);
+        this.cumulativeWeights = new double[profile.symbols()];
+        this.underlyings = new String[profile.symbols()];
+        this.prices = new double[profile.symbols()];
+
+        double total = 0.0;
+        for (int rank = 0; rank < profile.symbols(); rank++) {
+            total += 1.0 / Math.pow(rank + 1, profile.zipfExponent());
+            cumulativeWeights[rank] = total;
+        }
+        for (int rank = 0; rank < profile.symbols(); rank++) {
+            cumulativeWeights[rank] /= total;
+            prices[rank] = 10.0 + random.nextDouble() * 490.0;
+        }
+
+        // Underlyings come from the busiest 1% of the universe, so their ticks fan out to many dependants
+        int underlyingPool = Math.max(1, profile.symbols() / 100);
+        for (int rank = underlyingPool; rank < profile.symbols(); rank++) {
+            if (random.nextDouble() < profile.dependentRatio()) {
+                underlyings[rank] = symbol(random.nextInt(underlyingPool));
+            }
+        }
+    }
+
+    static String symbol(int rank) {
+        return "SYM" + rank;
+    }
+
+    Operation next() {
+        double draw = random.nextDouble();
+
+        if (draw < profile.deleteRatio()) {
+            return new Operation(Endpoint.DELETE, symbol(nextRank()), nextSource(), null, null);
+        } else if (draw < profile.deleteRatio() + profile.writeRatio()) {
+            int rank = nextRank();
+            return new Operation(Endpoint.UPDATE, symbol(rank), null, tick(rank), null);
+        }
+
+        // Reads: 30% specific, 50% consolidated, 20% batch
+        double read = random.nextDouble();
+
+        if (read < 0.3) {
+            return new Operation(Endpoint.QUERY_SPECIFIC, symbol(nextRank()), nextSource(), null, null);
+        } else if (read < 0.8) {
+            return new Operation(Endpoint.QUERY_CONSOLIDATED, symbol(nextRank()), null, null, null);
+        }
+
+        List<String> symbols = new ArrayList<>(profile.batchSize());
+        for (int i = 0; i < profile.batchSize(); i++) {
+            symbols.add(symbol(nextRank()));
+        }
+        return new Operation(Endpoint.QUERY_BATCH, null, null, null, symbols);
+    }
+
+    private int nextRank() {
+        int index = Arrays.binarySearch(cumulativeWeights, random.nextDouble());
+        return Math.min(index >= 0 ? index : -index - 1, cumulativeWeights.length - 1);
+    }
+
+    private String nextSource() {
+        return SOURCES[random.nextInt(SOURCES.length)];
+    }
+
+    private MarketDataRequestBody tick(int rank) {
+        // Random walk of a few basis points per tick
+        double price = prices[rank] = Math.max(0.01, prices[rank] * (1.0 + (random.nextGaussian() * 0.0005)));
+        double spread = price * 0.0002;
+        String timestamp = Instant.now().toString();
+
+        if (random.nextDouble() < profile.partialRatio()) {
+            // Trade-only or quote-only tick; every other field is left unchanged
+            return random.nextBoolean()
+                    ? new MarketDataRequestBody(symbol(rank), price, null, null, null, timestamp, null, nextSource(), null, null, null)
+                    : new MarketDataRequestBody(symbol(rank), null, price - spread, price, price + spread, timestamp, null, nextSource(), null, null, null);
+        }
+
+        return new MarketDataRequestBody(symbol(rank), price, price - spread, price, price + spread, timestamp, underlyings[rank], nextSource(),
+                LocalDate.now().minusDays(1 + rank % 180), 0.01 + (rank % 50) / 1000.0, underlyings[rank] != null ? 0.1 + (rank % 40) / 100.0 : null);
+    }
+}
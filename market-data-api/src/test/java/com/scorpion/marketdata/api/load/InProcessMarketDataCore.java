@@ -0,0 +1,122 @@
+package com.scorpion.marketdata.api.load;
+
+import com.scorpion.marketdata.api.dto.*;
+import com.scorpion.marketdata.core.book.ConsolidatedPriceBook;
+import com.scorpion.marketdata.core.broker.ConsolidatedEventPublisher;
+import com.scorpion.marketdata.core.cache.MarketDataCache;
+import com.scorpion.marketdata.core.dto.KafkaResponse;
+import com.scorpion.marketdata.core.repository.InMemoryMarketDataRepository;
+import com.scorpion.marketdata.core.repository.MarketDataRepository;
+import com.scorpion.marketdata.core.service.MarketDataServiceImpl;
+import com.scorpion.marketdata.core.service.NoOpTransactionManager;
+import com.scorpion.marketdata.core.service.TheoreticalPriceEngine;
+import com.scorpion.marketdata.core.tick.SymbolTable;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Stands in for a market-data-core node: consumes the request topics and answers through core's own
+// MarketDataServiceImpl over the in-memory repository, so the harness exercises the REST and Kafka legs
+// and the real write, consolidation and theoretical price paths without PostgreSQL.
+class InProcessMarketDataCore implements AutoCloseable {
+    static final List<String> REQUEST_TOPICS = List.of("market-data-update", "market-data-query-specific",
+            "market-data-query-consolidated", "market-data-query-consolidated-batch", "market-data-delete");
+
+    private final MarketDataServiceImpl service;
+    // Runs the theoretical price flush that core schedules at market-data.core.propagation.flush-interval-ms
+    private final ScheduledExecutorService propagation = Executors.newSingleThreadScheduledExecutor();
+    private final AtomicBoolean running = new AtomicBoolean(true);
+    private final List<Thread> threads = new ArrayList<>();
+
+    InProcessMarketDataCore(EmbeddedKafkaBroker broker, int threadCount) {
+        MarketDataRepository repository = new InMemoryMarketDataRepository();
+        PlatformTransactionManager transactionManager = new NoOpTransactionManager();
+        ConsolidatedPriceBook book = new ConsolidatedPriceBook(repository);
+        ConsolidatedEventPublisher publisher = new ConsolidatedEventPublisher(null, false);
+        MarketDataCache cache = new MarketDataCache(new ConcurrentMapCacheManager(MarketDataCache.CACHE_NAME));
+        TheoreticalPriceEngine engine = new TheoreticalPriceEngine(repository, transactionManager, book, publisher, cache);
+        service = new MarketDataServiceImpl(repository, transactionManager, book, publisher, cache, engine, new SymbolTable());
+        propagation.scheduleWithFixedDelay(engine::flush, 50, 50, TimeUnit.MILLISECONDS);
+
+        for (int i = 0; i < threadCount; i++) {
+            Thread thread = new Thread(() -> run(broker), "in-process-market-data-core-" + i);
+            thread.start();
+            threads.add(thread);
+        }
+    }
+
+    // Each request partition is owned by one thread, as in core's listener containers, so per-symbol order is kept
+    private void run(EmbeddedKafkaBroker broker) {
+        Map<String, Object> consumerProps = KafkaTestUtils.consumerProps("in-process-market-data-core", "true", broker);
+        consumerProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        JsonDeserializer<Object> deserializer = new JsonDeserializer<>().trustedPackages("*");
+
+        try (KafkaConsumer<String, Object> consumer = new KafkaConsumer<>(consumerProps, new StringDeserializer(), deserializer);
+             KafkaProducer<String, Object> producer = new KafkaProducer<>(KafkaTestUtils.producerProps(broker), new StringSerializer(), new JsonSerializer<>())) {
+            consumer.subscribe(REQUEST_TOPICS);
+
+            while (running.get()) {
+                for (ConsumerRecord<String, Object> record : consumer.poll(Duration.ofMillis(50))) {
+                    KafkaResponse response = handle(record.value());
+                    Header replyTopic = record.headers().lastHeader(KafkaHeaders.REPLY_TOPIC);
+                    Header replyPartition = record.headers().lastHeader(KafkaHeaders.REPLY_PARTITION);
+
+                    producer.send(new ProducerRecord<>(
+                            replyTopic != null ? new String(replyTopic.value(), StandardCharsets.UTF_8) : "market-data-response",
+                            replyPartition != null ? ByteBuffer.wrap(replyPartition.value()).getInt() : null,
+                            null, response));
+                }
+            }
+        }
+    }
+
+    private KafkaResponse handle(Object request) {
+        if (request instanceof UpdateRequest update) {
+            return new KafkaResponse(update.getCorrelationId(), service.saveMarketData(update.getMarketData()));
+        } else if (request instanceof GetSpecificRequest specific) {
+            return new KafkaResponse(specific.getCorrelationId(), service.getMarketDataSpecific(specific.getSymbol(), specific.getSource()));
+        } else if (request instanceof GetConsolidatedRequest consolidated) {
+            return new KafkaResponse(consolidated.getCorrelationId(), service.getMarketDataConsolidated(consolidated.getSymbol()));
+        } else if (request instanceof GetConsolidatedBatchRequest batch) {
+            return new KafkaResponse(batch.getCorrelationId(), service.getMarketDataBatch(batch.getSymbol()));
+        } else if (request instanceof DeleteRequest delete) {
+            return new KafkaResponse(delete.getCorrelationId(), service.deleteMarketData(delete.getSymbol(), delete.getSource()));
+        }
+
+        throw new IllegalArgumentException("Unexpected request " + request);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running.set(false);
+
+        for (Thread thread : threads) {
+            thread.join(5000);
+        }
+
+        propagation.shutdownNow();
+    }
+}
@@ -0,0 +1,76 @@
+package com.scorpion.marketdata.api.load;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+// Per-endpoint latency samples and outcome counts. Latencies are measured from each request's
+// scheduled start, so a stalled pipeline shows up in the tail instead of slowing the load down.
+class LatencyRecorder {
+    private final Map<FeedSimulator.Endpoint, Samples> samples = new EnumMap<>(FeedSimulator.Endpoint.class);
+
+    LatencyRecorder() {
+        for (FeedSimulator.Endpoint endpoint : FeedSimulator.Endpoint.values()) {
+            samples.put(endpoint, new Samples());
+        }
+    }
+
+    void record(FeedSimulator.Endpoint endpoint, long latencyNanos, int status) {
+        samples.get(endpoint).add(latencyNanos, status);
+    }
+
+    long total() {
+        return samples.values().stream().mapToLong(sample -> sample.count).sum();
+    }
+
+    String report(double elapsedSeconds) {
+        StringBuilder report = new StringBuilder(String.format("%-20s %8s %10s %9s %9s %9s %9s %7s %7s%n",
+                "endpoint", "count", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "4xx %", "err %"));
+
+        for (Map.Entry<FeedSimulator.Endpoint, Samples> entry : samples.entrySet()) {
+            Samples sample = entry.getValue();
+
+            if (sample.count > 0) {
+                long[] sorted = sample.sorted();
+                report.append(String.format("%-20s %8d %10.1f %9.2f %9.2f %9.2f %9.2f %7.2f %7.2f%n",
+                        entry.getKey(), sample.count, sample.count / elapsedSeconds,
+                        percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999), sorted[sorted.length - 1] / 1e6,
+                        100.0 * sample.clientErrors / sample.count, 100.0 * sample.errors / sample.count));
+            }
+        }
+
+        return report.toString();
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1)] / 1e6;
+    }
+
+    private static final class Samples {
+        private long[] latencies = new long[1 << 16];
+        private int count;
+        private long clientErrors;
+        private long errors;
+
+        // 4xx are business outcomes (unknown symbol, rejected update); 5xx and transport failures are errors
+        synchronized void add(long latencyNanos, int status) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+
+            latencies[count++] = latencyNanos;
+
+            if (status >= 400 && status < 500) {
+                clientErrors++;
+            } else if (status >= 500 || status < 0) {
+                errors++;
+            }
+        }
+
+        synchronized long[] sorted() {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.scorpion.marketdata.api.load;
+
+// Load shape, read from -Dmarket-data.load.* system properties
+record LoadProfile(int durationSeconds, int warmupSeconds, int requestsPerSecond, int symbols, double zipfExponent,
+                   double writeRatio, double deleteRatio, double partialRatio, double dependentRatio, int batchSize,
+                   int coreThreads) {
+
+    static LoadProfile fromSystemProperties() {
+        return new LoadProfile(
+                Integer.getInteger("market-data.load.duration-seconds", 30),
+                Integer.getInteger("market-data.load.warmup-seconds", 5),
+                Integer.getInteger("market-data.load.requests-per-second", 2_000),
+                Integer.getInteger("market-data.load.symbols", 5_000),
+                doubleProperty("market-data.load.zipf-exponent", 1.1),
+                doubleProperty("market-data.load.write-ratio", 0.7),
+                doubleProperty("market-data.load.delete-ratio", 0.01),
+                doubleProperty("market-data.load.partial-ratio", 0.6),
+                doubleProperty("market-data.load.dependent-ratio", 0.1),
+                Integer.getInteger("market-data.load.batch-size", 50),
+                Integer.getInteger("market-data.load.core-threads", 4)
+        );
+    }
+
+    private static double doubleProperty(String name, double defaultValue) {
+        String value = System.getProperty(name);
+        return value != null ? Double.parseDouble(value) : defaultValue;
+    }
+}
@@ -0,0 +1,144 @@
+package com.scorpion.marketdata.api.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scorpion.marketdata.api.MarketDataApiApplication;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Capacity harness for REST -> Kafka -> core -> reply. Opt in with -Dmarket-data.load.enabled=true and
+// shape the load with the other market-data.load.* properties (see LoadProfile), e.g.
+// mvn test -Dtest=MarketDataLoadTests -Dmarket-data.load.enabled=true -Dmarket-data.load.requests-per-second=5000
+@EnabledIfSystemProperty(named = "market-data.load.enabled", matches = "true")
+@EmbeddedKafka(partitions = 4, topics = {"market-data-update", "market-data-query-specific", "market-data-query-consolidated",
+        "market-data-query-consolidated-batch", "market-data-delete", "market-data-response", "market-data-consolidated-events"})
+class MarketDataLoadTests {
+
+    @Test
+    void reportsThroughputAndLatencyPerEndpoint(EmbeddedKafkaBroker broker) throws Exception {
+        LoadProfile profile = LoadProfile.fromSystemProperties();
+
+        try (InProcessMarketDataCore core = new InProcessMarketDataCore(broker, profile.coreThreads());
+             ConfigurableApplicationContext api = startApi(broker)) {
+            awaitAssignment(api);
+
+            String baseUri = "http://localhost:" + ((WebServerApplicationContext) api).getWebServer().getPort() + "/api/v1/market-data";
+            ObjectMapper objectMapper = api.getBean(ObjectMapper.class);
+            HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+            FeedSimulator feed = new FeedSimulator(profile, 42);
+
+            run(client, objectMapper, baseUri, feed, profile, profile.warmupSeconds(), new LatencyRecorder());
+
+            LatencyRecorder recorder = new LatencyRecorder();
+            long startNanos = System.nanoTime();
+            run(client, objectMapper, baseUri, feed, profile, profile.durationSeconds(), recorder);
+            double elapsedSeconds = (System.nanoTime() - startNanos) / 1e9;
+
+            System.out.printf("%nLoad: %d req/s target, %d symbols (zipf %.2f), %.0f%% writes, %.0f%% partial ticks, %.0f%% dependants%n%s",
+                    profile.requestsPerSecond(), profile.symbols(), profile.zipfExponent(), profile.writeRatio() * 100,
+                    profile.partialRatio() * 100, profile.dependentRatio() * 100, recorder.report(elapsedSeconds));
+
+            assertTrue(recorder.total() > 0);
+        }
+    }
+
+    private void awaitAssignment(ConfigurableApplicationContext api) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+
+        for (MessageListenerContainer container : api.getBean(KafkaListenerEndpointRegistry.class).getListenerContainers()) {
+            while ((container.getAssignedPartitions() == null || container.getAssignedPartitions().isEmpty()) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(100);
+            }
+        }
+    }
+
+    private ConfigurableApplicationContext startApi(EmbeddedKafkaBroker broker) {
+        return new SpringApplicationBuilder(MarketDataApiApplication.class).run(
+                "--server.port=0",
+                "--spring.kafka.bootstrap-servers=" + broker.getBrokersAsString(),
+                "--spring.kafka.admin.auto-create=false",
+                "--market-data.api.reply-partition=0",
+                "--market-data.api.reply-offset-reset=earliest",
+                // Per-request console logging would dominate at these rates
+                "--logging.level.com.scorpion.marketdata=OFF");
+    }
+
+    // Open loop: requests start on a fixed schedule whatever the response times, and latency is taken
+    // from the scheduled start, so queueing delay is not hidden by a slower send rate
+    private void run(HttpClient client, ObjectMapper objectMapper, String baseUri, FeedSimulator feed, LoadProfile profile,
+                     int seconds, LatencyRecorder recorder) {
+        long intervalNanos = 1_000_000_000L / profile.requestsPerSecond();
+        long requests = (long) seconds * profile.requestsPerSecond();
+        long startNanos = System.nanoTime();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < requests; i++) {
+                long scheduledNanos = startNanos + i * intervalNanos;
+                long waitNanos = scheduledNanos - System.nanoTime();
+
+                if (waitNanos > 0) {
+                    LockSupport.parkNanos(waitNanos);
+                }
+
+                FeedSimulator.Operation operation = feed.next();
+
+                executor.execute(() -> {
+                    int status;
+
+                    try {
+                        status = client.send(request(objectMapper, baseUri, operation), HttpResponse.BodyHandlers.discarding()).statusCode();
+                    } catch (Exception e) {
+                        status = -1;
+                    }
+
+                    recorder.record(operation.endpoint(), System.nanoTime() - scheduledNanos, status);
+                });
+            }
+        }
+    }
+
+    private static HttpRequest request(ObjectMapper objectMapper, String baseUri, FeedSimulator.Operation operation) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder().timeout(Duration.ofSeconds(30)).header("Content-Type", "application/json");
+
+        return switch (operation.endpoint()) {
+            case UPDATE -> request.uri(URI.create(baseUri))
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(operation.marketData())))
+                    .build();
+            case QUERY_SPECIFIC -> request.uri(URI.create(baseUri + "/source?symbol=" + encode(operation.symbol()) + "&source=" + encode(operation.source())))
+                    .GET()
+                    .build();
+            case QUERY_CONSOLIDATED -> request.uri(URI.create(baseUri + "/consolidated/" + encode(operation.symbol())))
+                    .GET()
+                    .build();
+            case QUERY_BATCH -> request.uri(URI.create(baseUri + "/batch"))
+                    .method("GET", HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(operation.symbols())))
+                    .build();
+            case DELETE -> request.uri(URI.create(baseUri + "/" + encode(operation.symbol()) + "/" + encode(operation.source())))
+                    .DELETE()
+                    .build();
+        };
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,76 @@
+package com.scorpion.marketdata.benchmark;
+
+import com.scorpion.marketdata.api.dto.MarketDataRequestBody;
+import com.scorpion.marketdata.core.book.ConsolidatedQuote;
+import com.scorpion.marketdata.core.dto.MarketDataResponseBody;
+import com.scorpion.marketdata.core.entity.MarketData;
+import com.scorpion.marketdata.core.service.MarketDataMerger;
+import com.scorpion.marketdata.core.service.TheoreticalPriceEngine;
+import com.scorpion.marketdata.core.tick.MarketTick;
+import com.scorpion.marketdata.core.tick.SymbolTable;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+// The public mapping and pricing steps of the write and read paths, one at a time. The service-private
+// ones are measured end to end by MarketDataServiceBenchmark.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MarketDataMappingBenchmark {
+    private MarketData entity;
+    private ConsolidatedQuote quote;
+    private MarketDataRequestBody update;
+    private SymbolTable symbolTable;
+    private MarketTick coalescedTick;
+    private MarketTick updateTick;
+    private double underlyingLastTradedPrice;
+
+    @Setup
+    public void setUp() {
+        entity = new MarketData("SYM1", 100.0, 99.99, 100.0, 100.01, "2024-01-02T10:15:30Z", "SYM0", "CONSOLIDATED",
+                LocalDate.of(2024, 1, 1), 0.05, 0.2, 0.01, 20.0);
+        quote = ConsolidatedQuote.of(entity);
+        MarketDataRequestBody previous = new MarketDataRequestBody("SYM1", 100.0, 99.99, 100.0, 100.01, "2024-01-02T10:15:30Z", "SYM0", "BLOOMBERG",
+                LocalDate.of(2024, 1, 1), 0.05, 0.2);
+        update = new MarketDataRequestBody("SYM1", 100.5, null, null, null, "2024-01-02T10:15:31Z", null, "BLOOMBERG", null, null, null);
+        symbolTable = new SymbolTable();
+        coalescedTick = new MarketTick(symbolTable.id("SYM1"), symbolTable.id("BLOOMBERG"));
+        coalescedTick.merge(previous, symbolTable);
+        updateTick = new MarketTick(symbolTable.id("SYM1"), symbolTable.id("BLOOMBERG"));
+        updateTick.merge(update, symbolTable);
+        underlyingLastTradedPrice = 250.0;
+    }
+
+    @Benchmark
+    public MarketDataResponseBody quoteToResponseBody() {
+        return quote.toResponseBody();
+    }
+
+    @Benchmark
+    public ConsolidatedQuote entityToQuote() {
+        return ConsolidatedQuote.of(entity);
+    }
+
+    // Coalescing a partial update into the pending tick for its symbol and source, in place
+    @Benchmark
+    public MarketTick mergeMarketTicks() {
+        coalescedTick.merge(update, symbolTable);
+        return coalescedTick;
+    }
+
+    @Benchmark
+    public MarketData applyMarketTick() {
+        MarketDataMerger.apply(entity, updateTick, symbolTable);
+        return entity;
+    }
+
+    @Benchmark
+    public double calculateTheoreticalPrice() {
+        return TheoreticalPriceEngine.theoreticalPrice(underlyingLastTradedPrice, entity.getVolatility());
+    }
+}
@@ -0,0 +1,123 @@
+package com.scorpion.marketdata.benchmark;
+
+import com.scorpion.marketdata.api.dto.MarketDataRequestBody;
+import com.scorpion.marketdata.core.book.ConsolidatedPriceBook;
+import com.scorpion.marketdata.core.broker.ConsolidatedEventPublisher;
+import com.scorpion.marketdata.core.cache.MarketDataCache;
+import com.scorpion.marketdata.core.dto.MarketDataResponseBody;
+import com.scorpion.marketdata.core.dto.TransactionStatusDto;
+import com.scorpion.marketdata.core.repository.InMemoryMarketDataRepository;
+import com.scorpion.marketdata.core.repository.MarketDataRepository;
+import com.scorpion.marketdata.core.service.MarketDataServiceImpl;
+import com.scorpion.marketdata.core.service.NoOpTransactionManager;
+import com.scorpion.marketdata.core.service.TheoreticalPriceEngine;
+import com.scorpion.marketdata.core.tick.SymbolTable;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// End-to-end service calls against the in-memory repository, with the book, cache and theoretical
+// price tracking wired as in production. Run with -prof gc for the allocation rate per operation.
+// The batch benchmarks score whole batches, so divide by batchSize for the cost of one record.
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MarketDataServiceBenchmark {
+    private static final int TICKS = 4096;
+
+    @Param({"1000"})
+    public int symbols;
+
+    @Param({"10", "100", "1000", "10000"})
+    public int batchSize;
+
+    private MarketDataServiceImpl service;
+    private MarketDataRequestBody[] ticks;
+    private List<MarketDataRequestBody> tickBatch;
+    private List<String> symbolBatch;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        MarketDataRepository repository = new InMemoryMarketDataRepository();
+        PlatformTransactionManager transactionManager = new NoOpTransactionManager();
+        ConsolidatedPriceBook book = new ConsolidatedPriceBook(repository);
+        ConsolidatedEventPublisher publisher = new ConsolidatedEventPublisher(null, false);
+        MarketDataCache cache = new MarketDataCache(new ConcurrentMapCacheManager(MarketDataCache.CACHE_NAME));
+        TheoreticalPriceEngine engine = new TheoreticalPriceEngine(repository, transactionManager, book, publisher, cache);
+        service = new MarketDataServiceImpl(repository, transactionManager, book, publisher, cache, engine, new SymbolTable());
+
+        // Every other symbol depends on the one before it, so ticks also exercise theoretical prices
+        for (int i = 0; i < symbols; i++) {
+            service.saveMarketData(tick(i, 100.0));
+        }
+
+        ticks = new MarketDataRequestBody[TICKS];
+        for (int i = 0; i < TICKS; i++) {
+            ticks[i] = tick(i % symbols, 100.0 + i % 97);
+        }
+
+        tickBatch = new ArrayList<>(batchSize);
+        symbolBatch = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            tickBatch.add(ticks[i & (TICKS - 1)]);
+            symbolBatch.add(symbol(i % symbols));
+        }
+    }
+
+    private static MarketDataRequestBody tick(int symbol, double price) {
+        return new MarketDataRequestBody(symbol(symbol), price, price - 0.01, price, price + 0.01, "2024-01-02T10:15:30." + symbol,
+                symbol % 2 == 1 ? symbol(symbol - 1) : null, "BLOOMBERG", LocalDate.of(2024, 1, 1), 0.05, 0.2);
+    }
+
+    private static String symbol(int symbol) {
+        return "SYM" + symbol;
+    }
+
+    private MarketDataRequestBody nextTick() {
+        return ticks[next++ & (TICKS - 1)];
+    }
+
+    @Benchmark
+    public TransactionStatusDto saveMarketData() {
+        return service.saveMarketData(nextTick());
+    }
+
+    @Benchmark
+    public List<TransactionStatusDto> saveMarketDataBatch() {
+        return service.saveMarketDataBatch(tickBatch);
+    }
+
+    @Benchmark
+    public MarketDataResponseBody getMarketDataSpecific() {
+        return service.getMarketDataSpecific(nextTick().getSymbol(), "BLOOMBERG");
+    }
+
+    @Benchmark
+    public MarketDataResponseBody getMarketDataConsolidated() {
+        return service.getMarketDataConsolidated(nextTick().getSymbol());
+    }
+
+    @Benchmark
+    public List<MarketDataResponseBody> getMarketDataBatch() {
+        return service.getMarketDataBatch(symbolBatch);
+    }
+
+    // Adds a second source and deletes it again, so the delete re-consolidates from the remaining row
+    @Benchmark
+    public TransactionStatusDto saveThenDeleteMarketData() {
+        MarketDataRequestBody tick = nextTick();
+
+        service.saveMarketData(new MarketDataRequestBody(tick.getSymbol(), tick.getLastTradedPrice(), null, null, null,
+                tick.getMarketTimestamp(), null, "REUTERS", null, null, null));
+        return service.deleteMarketData(tick.getSymbol(), "REUTERS");
+    }
+}
@@ -0,0 +1,93 @@
+package com.scorpion.marketdata.benchmark;
+
+import com.scorpion.marketdata.api.dto.MarketDataRequestBody;
+import com.scorpion.marketdata.api.dto.UpdateRequest;
+import com.scorpion.marketdata.core.dto.KafkaResponse;
+import com.scorpion.marketdata.core.dto.MarketDataResponseBody;
+import com.scorpion.marketdata.core.dto.TransactionStatusDto;
+import com.scorpion.marketdata.core.serde.MarketDataBinaryDeserializer;
+import com.scorpion.marketdata.core.serde.MarketDataBinarySerializer;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// The Kafka value serde on both sides of the API/core exchange: Spring's JSON serde against
+// MarketDataBinaryCodec. Encoded sizes are printed once per trial.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SerializationBenchmark {
+    private static final String TOPIC = "market-data";
+
+    // update: UpdateRequest; status: write reply; batch: batch query reply with 100 entries
+    @Param({"update", "status", "batch"})
+    public String message;
+
+    private final JsonSerializer<Object> jsonSerializer = new JsonSerializer<>();
+    private final JsonDeserializer<Object> jsonDeserializer = new JsonDeserializer<>().trustedPackages("*");
+    private final MarketDataBinarySerializer binarySerializer = new MarketDataBinarySerializer();
+    private final MarketDataBinaryDeserializer binaryDeserializer = new MarketDataBinaryDeserializer();
+
+    private Object payload;
+    private RecordHeaders jsonHeaders;
+    private byte[] json;
+    private byte[] binary;
+
+    @Setup
+    public void setUp() {
+        payload = switch (message) {
+            case "update" -> new UpdateRequest("0f8fad5b-d9cb-469f-a165-70867728950e", new MarketDataRequestBody("AAPL", 189.5, 189.4, 189.5, 189.6,
+                    "2024-01-02T10:15:30Z", "SPX", "BLOOMBERG", LocalDate.of(2023, 12, 15), 0.05, 0.2));
+            case "status" -> new KafkaResponse("0f8fad5b-d9cb-469f-a165-70867728950e", new TransactionStatusDto(true, "Market data saved successfully."));
+            case "batch" -> new KafkaResponse("0f8fad5b-d9cb-469f-a165-70867728950e", batch(100));
+            default -> throw new IllegalArgumentException(message);
+        };
+
+        // JSON carries its type in the headers, which the deserializer needs back
+        jsonHeaders = new RecordHeaders();
+        json = jsonSerializer.serialize(TOPIC, jsonHeaders, payload);
+        binary = binarySerializer.serialize(TOPIC, payload);
+
+        System.out.printf("%n%s: json %d bytes, binary %d bytes%n", message, json.length, binary.length);
+    }
+
+    private static List<MarketDataResponseBody> batch(int size) {
+        List<MarketDataResponseBody> batch = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            batch.add(new MarketDataResponseBody("SYM" + i, 100.0 + i, 99.99 + i, 100.0 + i, 100.01 + i, "2024-01-02T10:15:30Z",
+                    null, "CONSOLIDATED", "2024-01-01", 0.05, 0.2, 0.01, 0.0));
+        }
+
+        return batch;
+    }
+
+    @Benchmark
+    public byte[] jsonSerialize() {
+        return jsonSerializer.serialize(TOPIC, new RecordHeaders(), payload);
+    }
+
+    @Benchmark
+    public Object jsonDeserialize() {
+        return jsonDeserializer.deserialize(TOPIC, jsonHeaders, json);
+    }
+
+    @Benchmark
+    public byte[] binarySerialize() {
+        return binarySerializer.serialize(TOPIC, payload);
+    }
+
+    @Benchmark
+    public Object binaryDeserialize() {
+        return binaryDeserializer.deserialize(TOPIC, new RecordHeaders(), binary);
+    }
+}
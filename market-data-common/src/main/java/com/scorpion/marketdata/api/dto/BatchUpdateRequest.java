@@ -1,15 +1,17 @@
 package com.scorpion.marketdata.api.dto;
 
-public class UpdateRequest {
+import java.util.List;
+
+public class BatchUpdateRequest {
     private final String correlationId;
-    private final MarketDataRequestBody marketData;
+    private final List<MarketDataRequestBody> marketData;
 
-    public UpdateRequest() {
+    public BatchUpdateRequest() {
         this.correlationId = null;
         this.marketData = null;
     }
 
-    public UpdateRequest(String correlationId, MarketDataRequestBody marketData) {
+    public BatchUpdateRequest(String correlationId, List<MarketDataRequestBody> marketData) {
         this.correlationId = correlationId;
         this.marketData = marketData;
     }
@@ -18,7 +20,7 @@ public class UpdateRequest {
         return correlationId;
     }
 
-    public MarketDataRequestBody getMarketData() {
+    public List<MarketDataRequestBody> getMarketData() {
         return marketData;
     }
 }
@@ -5,15 +5,23 @@ import java.util.List;
 public class GetConsolidatedBatchRequest {
     private final String correlationId;
     private final List<String> symbol;
+    // When set, core replies with ordered chunks of at most this many entries instead of one list
+    private final Integer chunkSize;
 
     public GetConsolidatedBatchRequest() {
         this.correlationId = null;
         this.symbol = null;
+        this.chunkSize = null;
     }
 
     public GetConsolidatedBatchRequest(String correlationId, List<String> symbol) {
+        this(correlationId, symbol, null);
+    }
+
+    public GetConsolidatedBatchRequest(String correlationId, List<String> symbol, Integer chunkSize) {
         this.correlationId = correlationId;
         this.symbol = symbol;
+        this.chunkSize = chunkSize;
     }
 
     public String getCorrelationId() {
@@ -23,4 +31,8 @@ public class GetConsolidatedBatchRequest {
     public List<String> getSymbol() {
         return symbol;
     }
+
+    public Integer getChunkSize() {
+        return chunkSize;
+    }
 }
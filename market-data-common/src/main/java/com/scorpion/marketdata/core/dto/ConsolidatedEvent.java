@@ -0,0 +1,33 @@
+package com.scorpion.marketdata.core.dto;
+
+// Published on every change to a symbol's consolidated market data; data is null when it was deleted
+public class ConsolidatedEvent {
+    private String symbol;
+    private Object data;
+
+    public ConsolidatedEvent() {
+        this.symbol = null;
+        this.data = null;
+    }
+
+    public ConsolidatedEvent(String symbol, Object data) {
+        this.symbol = symbol;
+        this.data = data;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public void setSymbol(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public Object getData() {
+        return data;
+    }
+
+    public void setData(Object data) {
+        this.data = data;
+    }
+}
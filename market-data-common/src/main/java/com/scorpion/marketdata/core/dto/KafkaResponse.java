@@ -3,6 +3,9 @@ package com.scorpion.marketdata.core.dto;
 public class KafkaResponse {
     private String correlationId;
     private Object data;
+    // Set only on streamed replies: position of this chunk and whether it ends the stream
+    private Integer sequence;
+    private Boolean last;
 
     public KafkaResponse() {
         this.correlationId = null;
@@ -14,6 +17,13 @@ public class KafkaResponse {
         this.data = data;
     }
 
+    public KafkaResponse(String correlationId, Object data, Integer sequence, Boolean last) {
+        this.correlationId = correlationId;
+        this.data = data;
+        this.sequence = sequence;
+        this.last = last;
+    }
+
     public String getCorrelationId() {
         return correlationId;
     }
@@ -29,4 +39,20 @@ public class KafkaResponse {
     public void setData(Object data) {
         this.data = data;
     }
+
+    public Integer getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(Integer sequence) {
+        this.sequence = sequence;
+    }
+
+    public Boolean getLast() {
+        return last;
+    }
+
+    public void setLast(Boolean last) {
+        this.last = last;
+    }
 }
@@ -1,6 +1,8 @@
 package com.scorpion.marketdata.core.dto;
 
-public class MarketDataResponseBody {
+import java.io.Serializable;
+
+public class MarketDataResponseBody implements Serializable {
     private final String symbol;
     private final Double lastTradedPrice;
     private final Double bidPrice;
@@ -0,0 +1,479 @@
+package com.scorpion.marketdata.core.serde;
+
+import com.scorpion.marketdata.api.dto.*;
+import com.scorpion.marketdata.core.dto.ConsolidatedEvent;
+import com.scorpion.marketdata.core.dto.KafkaResponse;
+import com.scorpion.marketdata.core.dto.MarketDataResponseBody;
+import com.scorpion.marketdata.core.dto.TransactionStatusDto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Compact binary encoding of the messages exchanged between market-data-api and market-data-core.
+//
+// Layout: MAGIC, VERSION, message tag, then the message fields in declaration order. Strings are a
+// varint of (UTF-8 length + 1), 0 meaning null. Nullable numbers are preceded by a varint bitmask of
+// the ones present and only the present values are written, as raw 8-byte doubles. Nullable longs
+// are a presence byte followed by the zigzag varint, so every long value stays distinct from null.
+public final class MarketDataBinaryCodec {
+    public static final byte MAGIC = (byte) 0xB1;
+    private static final byte VERSION = 1;
+
+    private static final byte UPDATE_REQUEST = 1;
+    private static final byte GET_SPECIFIC_REQUEST = 2;
+    private static final byte GET_CONSOLIDATED_REQUEST = 3;
+    private static final byte GET_CONSOLIDATED_BATCH_REQUEST = 4;
+    private static final byte DELETE_REQUEST = 5;
+    private static final byte BATCH_UPDATE_REQUEST = 6;
+    private static final byte KAFKA_RESPONSE = 7;
+    private static final byte CONSOLIDATED_EVENT = 8;
+
+    // Tags of the typed payloads carried by KafkaResponse and ConsolidatedEvent
+    private static final byte NULL = 0;
+    private static final byte TRANSACTION_STATUS = 1;
+    private static final byte MARKET_DATA = 2;
+    private static final byte MARKET_DATA_LIST = 3;
+    private static final byte TRANSACTION_STATUS_LIST = 4;
+    private static final byte STRING = 5;
+
+    private MarketDataBinaryCodec() {
+    }
+
+    public static boolean isBinary(byte[] data) {
+        return data != null && data.length >= 2 && data[0] == MAGIC;
+    }
+
+    public static byte[] encode(Object message) {
+        Writer writer = new Writer();
+        writer.writeByte(MAGIC);
+        writer.writeByte(VERSION);
+
+        if (message instanceof UpdateRequest request) {
+            writer.writeByte(UPDATE_REQUEST);
+            writer.writeString(request.getCorrelationId());
+            writeMarketDataRequest(writer, request.getMarketData());
+        } else if (message instanceof GetSpecificRequest request) {
+            writer.writeByte(GET_SPECIFIC_REQUEST);
+            writer.writeString(request.getCorrelationId());
+            writer.writeString(request.getSymbol());
+            writer.writeString(request.getSource());
+        } else if (message instanceof GetConsolidatedRequest request) {
+            writer.writeByte(GET_CONSOLIDATED_REQUEST);
+            writer.writeString(request.getCorrelationId());
+            writer.writeString(request.getSymbol());
+        } else if (message instanceof GetConsolidatedBatchRequest request) {
+            writer.writeByte(GET_CONSOLIDATED_BATCH_REQUEST);
+            writer.writeString(request.getCorrelationId());
+            writeStringList(writer, request.getSymbol());
+            writer.writeNullableInt(request.getChunkSize());
+        } else if (message instanceof DeleteRequest request) {
+            writer.writeByte(DELETE_REQUEST);
+            writer.writeString(request.getCorrelationId());
+            writer.writeString(request.getSymbol());
+            writer.writeString(request.getSource());
+        } else if (message instanceof BatchUpdateRequest request) {
+            writer.writeByte(BATCH_UPDATE_REQUEST);
+            writer.writeString(request.getCorrelationId());
+
+            if (request.getMarketData() == null) {
+                writer.writeVarInt(0);
+            } else {
+                writer.writeVarInt(request.getMarketData().size() + 1);
+
+                for (MarketDataRequestBody marketData : request.getMarketData()) {
+                    writeMarketDataRequest(writer, marketData);
+                }
+            }
+        } else if (message instanceof KafkaResponse response) {
+            writer.writeByte(KAFKA_RESPONSE);
+            writer.writeString(response.getCorrelationId());
+            writePayload(writer, response.getData());
+            writer.writeNullableInt(response.getSequence());
+            writer.writeByte(response.getLast() == null ? 0 : response.getLast() ? 2 : 1);
+        } else if (message instanceof ConsolidatedEvent event) {
+            writer.writeByte(CONSOLIDATED_EVENT);
+            writer.writeString(event.getSymbol());
+            writePayload(writer, event.getData());
+        } else {
+            throw new IllegalArgumentException("Unsupported message type " + (message != null ? message.getClass().getName() : "null"));
+        }
+
+        return writer.toByteArray();
+    }
+
+    public static Object decode(byte[] data) {
+        Reader reader = new Reader(data);
+
+        if (reader.readByte() != MAGIC) {
+            throw new IllegalArgumentException("Not a binary market data message");
+        }
+
+        byte version = reader.readByte();
+
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported binary market data version " + version);
+        }
+
+        byte tag = reader.readByte();
+
+        return switch (tag) {
+            case UPDATE_REQUEST -> new UpdateRequest(reader.readString(), readMarketDataRequest(reader));
+            case GET_SPECIFIC_REQUEST -> new GetSpecificRequest(reader.readString(), reader.readString(), reader.readString());
+            case GET_CONSOLIDATED_REQUEST -> new GetConsolidatedRequest(reader.readString(), reader.readString());
+            case GET_CONSOLIDATED_BATCH_REQUEST -> new GetConsolidatedBatchRequest(reader.readString(), readStringList(reader), reader.readNullableInt());
+            case DELETE_REQUEST -> new DeleteRequest(reader.readString(), reader.readString(), reader.readString());
+            case BATCH_UPDATE_REQUEST -> {
+                String correlationId = reader.readString();
+                int size = reader.readVarInt() - 1;
+                List<MarketDataRequestBody> marketData = null;
+
+                if (size >= 0) {
+                    marketData = new ArrayList<>(size);
+
+                    for (int i = 0; i < size; i++) {
+                        marketData.add(readMarketDataRequest(reader));
+                    }
+                }
+
+                yield new BatchUpdateRequest(correlationId, marketData);
+            }
+            case KAFKA_RESPONSE -> {
+                String correlationId = reader.readString();
+                Object payload = readPayload(reader);
+                Integer sequence = reader.readNullableInt();
+                byte last = reader.readByte();
+
+                yield new KafkaResponse(correlationId, payload, sequence, last == 0 ? null : last == 2);
+            }
+            case CONSOLIDATED_EVENT -> new ConsolidatedEvent(reader.readString(), readPayload(reader));
+            default -> throw new IllegalArgumentException("Unknown binary market data message tag " + tag);
+        };
+    }
+
+    // Requests inside a batch may be null, so each starts with a presence byte
+    private static void writeMarketDataRequest(Writer writer, MarketDataRequestBody marketData) {
+        if (marketData == null) {
+            writer.writeByte(0);
+            return;
+        }
+
+        writer.writeByte(1);
+        writer.writeString(marketData.getSymbol());
+        writer.writeString(marketData.getMarketTimestamp());
+        writer.writeString(marketData.getDependsOnSymbol());
+        writer.writeString(marketData.getSource());
+        writer.writeDoubles(marketData.getLastTradedPrice(), marketData.getBidPrice(), marketData.getMidPrice(),
+                marketData.getAskPrice(), marketData.getInterestRate(), marketData.getVolatility());
+        writer.writeNullableLong(marketData.getLastCouponDate() != null ? marketData.getLastCouponDate().toEpochDay() : null);
+    }
+
+    private static MarketDataRequestBody readMarketDataRequest(Reader reader) {
+        if (reader.readByte() == 0) {
+            return null;
+        }
+
+        String symbol = reader.readString();
+        String marketTimestamp = reader.readString();
+        String dependsOnSymbol = reader.readString();
+        String source = reader.readString();
+        Double[] prices = reader.readDoubles(6);
+        Long lastCouponDate = reader.readNullableLong();
+
+        return new MarketDataRequestBody(symbol, prices[0], prices[1], prices[2], prices[3], marketTimestamp, dependsOnSymbol, source,
+                lastCouponDate != null ? LocalDate.ofEpochDay(lastCouponDate) : null, prices[4], prices[5]);
+    }
+
+    private static void writeMarketDataResponse(Writer writer, MarketDataResponseBody marketData) {
+        writer.writeString(marketData.getSymbol());
+        writer.writeString(marketData.getMarketTimestamp());
+        writer.writeString(marketData.getDependsOnSymbol());
+        writer.writeString(marketData.getSource());
+        writer.writeString(marketData.getLastCouponDate());
+        writer.writeDoubles(marketData.getLastTradedPrice(), marketData.getBidPrice(), marketData.getMidPrice(), marketData.getAskPrice(),
+                marketData.getInterestRate(), marketData.getVolatility(), marketData.getAccruedInterest(), marketData.getTheoreticalPrice());
+    }
+
+    private static MarketDataResponseBody readMarketDataResponse(Reader reader) {
+        String symbol = reader.readString();
+        String marketTimestamp = reader.readString();
+        String dependsOnSymbol = reader.readString();
+        String source = reader.readString();
+        String lastCouponDate = reader.readString();
+        Double[] prices = reader.readDoubles(8);
+
+        return new MarketDataResponseBody(symbol, prices[0], prices[1], prices[2], prices[3], marketTimestamp, dependsOnSymbol, source,
+                lastCouponDate, prices[4], prices[5], prices[6], prices[7]);
+    }
+
+    private static void writePayload(Writer writer, Object payload) {
+        if (payload == null) {
+            writer.writeByte(NULL);
+        } else if (payload instanceof TransactionStatusDto status) {
+            writer.writeByte(TRANSACTION_STATUS);
+            writer.writeByte(status.getStatus() ? 1 : 0);
+            writer.writeString(status.getMessage());
+        } else if (payload instanceof MarketDataResponseBody marketData) {
+            writer.writeByte(MARKET_DATA);
+            writeMarketDataResponse(writer, marketData);
+        } else if (payload instanceof List<?> list) {
+            boolean statuses = list.stream().anyMatch(TransactionStatusDto.class::isInstance);
+            writer.writeByte(statuses ? TRANSACTION_STATUS_LIST : MARKET_DATA_LIST);
+            writer.writeVarInt(list.size());
+
+            for (Object element : list) {
+                if (element == null) {
+                    writer.writeByte(0);
+                } else if (statuses && element instanceof TransactionStatusDto status) {
+                    writer.writeByte(1);
+                    writer.writeByte(status.getStatus() ? 1 : 0);
+                    writer.writeString(status.getMessage());
+                } else if (!statuses && element instanceof MarketDataResponseBody marketData) {
+                    writer.writeByte(1);
+                    writeMarketDataResponse(writer, marketData);
+                } else {
+                    throw new IllegalArgumentException("Unsupported list element type " + element.getClass().getName());
+                }
+            }
+        } else if (payload instanceof String string) {
+            writer.writeByte(STRING);
+            writer.writeString(string);
+        } else {
+            throw new IllegalArgumentException("Unsupported payload type " + payload.getClass().getName());
+        }
+    }
+
+    private static Object readPayload(Reader reader) {
+        byte tag = reader.readByte();
+
+        switch (tag) {
+            case NULL:
+                return null;
+            case TRANSACTION_STATUS:
+                return new TransactionStatusDto(reader.readByte() == 1, reader.readString());
+            case MARKET_DATA:
+                return readMarketDataResponse(reader);
+            case MARKET_DATA_LIST:
+            case TRANSACTION_STATUS_LIST:
+                int size = reader.readVarInt();
+                List<Object> list = new ArrayList<>(size);
+
+                for (int i = 0; i < size; i++) {
+                    if (reader.readByte() == 0) {
+                        list.add(null);
+                    } else if (tag == TRANSACTION_STATUS_LIST) {
+                        list.add(new TransactionStatusDto(reader.readByte() == 1, reader.readString()));
+                    } else {
+                        list.add(readMarketDataResponse(reader));
+                    }
+                }
+
+                return list;
+            case STRING:
+                return reader.readString();
+            default:
+                throw new IllegalArgumentException("Unknown binary market data payload tag " + tag);
+        }
+    }
+
+    private static void writeStringList(Writer writer, List<String> strings) {
+        if (strings == null) {
+            writer.writeVarInt(0);
+            return;
+        }
+
+        writer.writeVarInt(strings.size() + 1);
+
+        for (String string : strings) {
+            writer.writeString(string);
+        }
+    }
+
+    private static List<String> readStringList(Reader reader) {
+        int size = reader.readVarInt() - 1;
+
+        if (size < 0) {
+            return null;
+        }
+
+        List<String> strings = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            strings.add(reader.readString());
+        }
+
+        return strings;
+    }
+
+    static final class Writer {
+        private byte[] buffer = new byte[256];
+        private int position;
+
+        void writeByte(int value) {
+            ensureCapacity(1);
+            buffer[position++] = (byte) value;
+        }
+
+        void writeVarInt(int value) {
+            writeVarLong(value & 0xFFFFFFFFL);
+        }
+
+        void writeVarLong(long value) {
+            ensureCapacity(10);
+
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+
+            buffer[position++] = (byte) value;
+        }
+
+        void writeString(String value) {
+            if (value == null) {
+                writeVarInt(0);
+                return;
+            }
+
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length + 1);
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        void writeNullableLong(Long value) {
+            if (value == null) {
+                writeByte(0);
+                return;
+            }
+
+            writeByte(1);
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        void writeNullableInt(Integer value) {
+            writeNullableLong(value != null ? value.longValue() : null);
+        }
+
+        void writeDoubles(Double... values) {
+            int mask = 0;
+
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != null) {
+                    mask |= 1 << i;
+                }
+            }
+
+            writeVarInt(mask);
+            ensureCapacity(values.length * Long.BYTES);
+
+            for (Double value : values) {
+                if (value != null) {
+                    long bits = Double.doubleToRawLongBits(value);
+
+                    for (int shift = 56; shift >= 0; shift -= 8) {
+                        buffer[position++] = (byte) (bits >>> shift);
+                    }
+                }
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+
+        private void ensureCapacity(int additional) {
+            if (position + additional > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + additional));
+            }
+        }
+    }
+
+    static final class Reader {
+        private final byte[] buffer;
+        private int position;
+
+        Reader(byte[] buffer) {
+            this.buffer = buffer;
+        }
+
+        byte readByte() {
+            if (position >= buffer.length) {
+                throw new IllegalArgumentException("Truncated binary market data message");
+            }
+
+            return buffer[position++];
+        }
+
+        int readVarInt() {
+            return (int) readVarLong();
+        }
+
+        long readVarLong() {
+            long value = 0;
+
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+
+            throw new IllegalArgumentException("Malformed varint in binary market data message");
+        }
+
+        String readString() {
+            int length = readVarInt() - 1;
+
+            if (length < 0) {
+                return null;
+            }
+
+            if (position + length > buffer.length) {
+                throw new IllegalArgumentException("Truncated binary market data message");
+            }
+
+            String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        Long readNullableLong() {
+            if (readByte() == 0) {
+                return null;
+            }
+
+            long zigzag = readVarLong();
+            return (zigzag >>> 1) ^ -(zigzag & 1);
+        }
+
+        Integer readNullableInt() {
+            Long value = readNullableLong();
+            return value != null ? value.intValue() : null;
+        }
+
+        Double[] readDoubles(int count) {
+            int mask = readVarInt();
+            Double[] values = new Double[count];
+
+            for (int i = 0; i < count; i++) {
+                if ((mask & (1 << i)) != 0) {
+                    long bits = 0;
+
+                    for (int j = 0; j < Long.BYTES; j++) {
+                        bits = (bits << 8) | (readByte() & 0xFF);
+                    }
+
+                    values[i] = Double.longBitsToDouble(bits);
+                }
+            }
+
+            return values;
+        }
+    }
+}
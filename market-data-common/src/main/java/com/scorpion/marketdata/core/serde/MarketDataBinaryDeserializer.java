@@ -0,0 +1,34 @@
+package com.scorpion.marketdata.core.serde;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+// Reads binary messages and falls back to JSON for anything else, so producers can switch
+// serde one service at a time
+public class MarketDataBinaryDeserializer implements Deserializer<Object> {
+    private final JsonDeserializer<Object> jsonDeserializer = new JsonDeserializer<>().trustedPackages("*");
+
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+
+        return MarketDataBinaryCodec.isBinary(data) ? MarketDataBinaryCodec.decode(data) : jsonDeserializer.deserialize(topic, data);
+    }
+
+    @Override
+    public Object deserialize(String topic, Headers headers, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+
+        return MarketDataBinaryCodec.isBinary(data) ? MarketDataBinaryCodec.decode(data) : jsonDeserializer.deserialize(topic, headers, data);
+    }
+
+    @Override
+    public void close() {
+        jsonDeserializer.close();
+    }
+}
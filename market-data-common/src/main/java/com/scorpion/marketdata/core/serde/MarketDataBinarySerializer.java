@@ -0,0 +1,11 @@
+package com.scorpion.marketdata.core.serde;
+
+import org.apache.kafka.common.serialization.Serializer;
+
+public class MarketDataBinarySerializer implements Serializer<Object> {
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        return data != null ? MarketDataBinaryCodec.encode(data) : null;
+    }
+}
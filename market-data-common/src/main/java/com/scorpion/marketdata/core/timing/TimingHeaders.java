@@ -0,0 +1,38 @@
+package com.scorpion.marketdata.core.timing;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Map;
+
+// Per-stage timestamps carried on requests and replies, in epoch microseconds. The API stamps the
+// request; core echoes it and adds its own, so the API can split a reply's latency into stages.
+// Spans between API and core timestamps rely on the hosts' clocks being synchronised.
+public final class TimingHeaders {
+    public static final String OPERATION = "market-data-operation";
+    public static final String API_SENT = "market-data-api-sent-us";
+    public static final String CORE_RECEIVED = "market-data-core-received-us";
+    public static final String CORE_PROCESS_STARTED = "market-data-core-process-started-us";
+    public static final String CORE_PROCESS_ENDED = "market-data-core-process-ended-us";
+    public static final String CORE_REPLY_SENT = "market-data-core-reply-sent-us";
+
+    private TimingHeaders() {
+    }
+
+    public static long nowMicros() {
+        Instant now = Instant.now();
+        return now.getEpochSecond() * 1_000_000 + now.getNano() / 1_000;
+    }
+
+    public static byte[] encode(long micros) {
+        return ByteBuffer.allocate(Long.BYTES).putLong(micros).array();
+    }
+
+    public static long decode(byte[] value) {
+        return value != null && value.length == Long.BYTES ? ByteBuffer.wrap(value).getLong() : -1;
+    }
+
+    // -1 when the header is missing, e.g. a request from an older API instance
+    public static long get(Map<String, Object> headers, String name) {
+        return headers.get(name) instanceof byte[] value ? decode(value) : -1;
+    }
+}
@@ -0,0 +1,99 @@
+package com.scorpion.marketdata.core.serde;
+
+import com.scorpion.marketdata.api.dto.*;
+import com.scorpion.marketdata.core.dto.KafkaResponse;
+import com.scorpion.marketdata.core.dto.MarketDataResponseBody;
+import com.scorpion.marketdata.core.dto.TransactionStatusDto;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MarketDataBinaryCodecTests {
+    private final JsonSerializer<Object> jsonSerializer = new JsonSerializer<>();
+
+    @Test
+    void roundTripsUpdateRequestAndIsSmallerThanJson() {
+        MarketDataRequestBody marketData = new MarketDataRequestBody("AAPL", 189.5, 189.4, null, 189.6, "2024-01-02T10:15:30Z",
+                "SPX", "BLOOMBERG", LocalDate.of(2023, 12, 15), 0.05, null);
+        UpdateRequest request = new UpdateRequest("c-1", marketData);
+
+        byte[] binary = MarketDataBinaryCodec.encode(request);
+        UpdateRequest decoded = (UpdateRequest) MarketDataBinaryCodec.decode(binary);
+
+        assertEquals("c-1", decoded.getCorrelationId());
+        assertEquals("AAPL", decoded.getMarketData().getSymbol());
+        assertEquals(189.5, decoded.getMarketData().getLastTradedPrice());
+        assertNull(decoded.getMarketData().getMidPrice());
+        assertEquals("2024-01-02T10:15:30Z", decoded.getMarketData().getMarketTimestamp());
+        assertEquals(LocalDate.of(2023, 12, 15), decoded.getMarketData().getLastCouponDate());
+        assertEquals(0.05, decoded.getMarketData().getInterestRate());
+        assertNull(decoded.getMarketData().getVolatility());
+        assertTrue(binary.length < jsonSerializer.serialize("market-data-update", request).length);
+    }
+
+    @Test
+    void roundTripsRequests() {
+        GetConsolidatedBatchRequest batch = (GetConsolidatedBatchRequest) MarketDataBinaryCodec.decode(
+                MarketDataBinaryCodec.encode(new GetConsolidatedBatchRequest("c-2", List.of("A", "B"), 500)));
+        DeleteRequest delete = (DeleteRequest) MarketDataBinaryCodec.decode(
+                MarketDataBinaryCodec.encode(new DeleteRequest("c-3", "A", "REUTERS")));
+
+        assertEquals(List.of("A", "B"), batch.getSymbol());
+        assertEquals(500, batch.getChunkSize());
+        assertEquals("REUTERS", delete.getSource());
+    }
+
+    @Test
+    void roundTripsTypedResponsePayloads() {
+        MarketDataResponseBody marketData = new MarketDataResponseBody("AAPL", 189.5, null, null, null, "2024-01-02T10:15:30Z",
+                null, "CONSOLIDATED", null, null, 0.2, 0.0, 37.9);
+
+        KafkaResponse list = (KafkaResponse) MarketDataBinaryCodec.decode(
+                MarketDataBinaryCodec.encode(new KafkaResponse("c-4", Arrays.asList(marketData, null), 3, true)));
+        KafkaResponse status = (KafkaResponse) MarketDataBinaryCodec.decode(
+                MarketDataBinaryCodec.encode(new KafkaResponse("c-5", new TransactionStatusDto(true, "Market data saved successfully."))));
+
+        List<?> data = (List<?>) list.getData();
+        assertEquals(37.9, ((MarketDataResponseBody) data.get(0)).getTheoreticalPrice());
+        assertNull(data.get(1));
+        assertEquals(3, list.getSequence());
+        assertEquals(Boolean.TRUE, list.getLast());
+
+        assertTrue(((TransactionStatusDto) status.getData()).getStatus());
+        assertNull(status.getSequence());
+        assertNull(status.getLast());
+    }
+
+    @Test
+    void roundTripsLongExtremesAndNull() {
+        MarketDataBinaryCodec.Writer writer = new MarketDataBinaryCodec.Writer();
+        writer.writeNullableLong(Long.MIN_VALUE);
+        writer.writeNullableLong(null);
+        writer.writeNullableLong(Long.MAX_VALUE);
+        writer.writeNullableLong(0L);
+
+        MarketDataBinaryCodec.Reader reader = new MarketDataBinaryCodec.Reader(writer.toByteArray());
+
+        assertEquals(Long.MIN_VALUE, reader.readNullableLong());
+        assertNull(reader.readNullableLong());
+        assertEquals(Long.MAX_VALUE, reader.readNullableLong());
+        assertEquals(0L, reader.readNullableLong());
+    }
+
+    @Test
+    void deserializerFallsBackToJson() {
+        MarketDataBinaryDeserializer deserializer = new MarketDataBinaryDeserializer();
+        RecordHeaders headers = new RecordHeaders();
+        byte[] json = jsonSerializer.serialize("market-data-delete", headers, new DeleteRequest("c-6", "A", "REUTERS"));
+
+        DeleteRequest decoded = (DeleteRequest) deserializer.deserialize("market-data-delete", headers, json);
+
+        assertEquals("c-6", decoded.getCorrelationId());
+    }
+}
@@ -0,0 +1,79 @@
+package com.scorpion.marketdata.core.book;
+
+import com.scorpion.marketdata.core.entity.MarketData;
+import com.scorpion.marketdata.core.repository.MarketDataRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// In-memory view of every CONSOLIDATED row. It is loaded before the Kafka listeners start and changed
+// after each local write commits; changes committed by other core nodes arrive as consolidated events
+// (see ConsolidatedEventListener), so every node's book converges and reads never need the database.
+// Publishing is left to the callers, which do it once the change has committed.
+@Component
+public class ConsolidatedPriceBook {
+    private static final Logger log = LoggerFactory.getLogger(ConsolidatedPriceBook.class);
+    private final ConcurrentHashMap<String, ConsolidatedQuote> quotes = new ConcurrentHashMap<>();
+    private final MarketDataRepository marketDataRepository;
+
+    public ConsolidatedPriceBook(MarketDataRepository marketDataRepository) {
+        this.marketDataRepository = marketDataRepository;
+    }
+
+    // Also called to resynchronise with the database, so symbols no longer there are dropped
+    @PostConstruct
+    public void warm() {
+        Set<String> symbols = new HashSet<>();
+
+        for (MarketData marketData : marketDataRepository.findAllBySource("CONSOLIDATED")) {
+            quotes.put(marketData.getSymbol(), ConsolidatedQuote.of(marketData));
+            symbols.add(marketData.getSymbol());
+        }
+
+        quotes.keySet().retainAll(symbols);
+
+        log.warn("Loaded {} consolidated quotes", quotes.size());
+    }
+
+    public ConsolidatedQuote get(String symbol) {
+        return symbol != null ? quotes.get(symbol) : null;
+    }
+
+    // NaN when the symbol has no consolidated last traded price
+    public double getLastTradedPrice(String symbol) {
+        ConsolidatedQuote quote = get(symbol);
+        return quote != null ? quote.getLastTradedPrice() : Double.NaN;
+    }
+
+    public void put(MarketData consolidatedMarketData) {
+        ConsolidatedQuote quote = ConsolidatedQuote.of(consolidatedMarketData);
+        quotes.put(quote.getSymbol(), quote);
+    }
+
+    // The updated quote, or null when the symbol is not in the book
+    public ConsolidatedQuote updateTheoreticalPrice(String symbol, double theoreticalPrice) {
+        return quotes.computeIfPresent(symbol, (key, previous) -> previous.withTheoreticalPrice(theoreticalPrice));
+    }
+
+    public boolean remove(String symbol) {
+        return quotes.remove(symbol) != null;
+    }
+
+    // Applies a change committed by any core node without publishing it again; null removes the symbol
+    public void apply(String symbol, ConsolidatedQuote quote) {
+        if (quote != null) {
+            quotes.put(symbol, quote);
+        } else {
+            quotes.remove(symbol);
+        }
+    }
+
+    public int size() {
+        return quotes.size();
+    }
+}
@@ -0,0 +1,122 @@
+package com.scorpion.marketdata.core.book;
+
+import com.scorpion.marketdata.core.dto.MarketDataResponseBody;
+import com.scorpion.marketdata.core.entity.MarketData;
+
+import java.time.LocalDate;
+
+// Immutable snapshot of a CONSOLIDATED row; absent prices are stored as NaN instead of boxed nulls
+public final class ConsolidatedQuote {
+    private final String symbol;
+    private final double lastTradedPrice;
+    private final double bidPrice;
+    private final double midPrice;
+    private final double askPrice;
+    private final String marketTimestamp;
+    private final String dependsOnSymbol;
+    private final LocalDate lastCouponDate;
+    private final double interestRate;
+    private final double volatility;
+    private final double accruedInterest;
+    private final double theoreticalPrice;
+
+    private ConsolidatedQuote(MarketData marketData) {
+        this.symbol = marketData.getSymbol();
+        this.lastTradedPrice = unbox(marketData.getLastTradedPrice());
+        this.bidPrice = unbox(marketData.getBidPrice());
+        this.midPrice = unbox(marketData.getMidPrice());
+        this.askPrice = unbox(marketData.getAskPrice());
+        this.marketTimestamp = marketData.getMarketTimestamp();
+        this.dependsOnSymbol = marketData.getDependsOnSymbol();
+        this.lastCouponDate = marketData.getLastCouponDate();
+        this.interestRate = unbox(marketData.getInterestRate());
+        this.volatility = unbox(marketData.getVolatility());
+        this.accruedInterest = unbox(marketData.getAccruedInterest());
+        this.theoreticalPrice = unbox(marketData.getTheoreticalPrice());
+    }
+
+    private ConsolidatedQuote(MarketDataResponseBody marketData) {
+        this.symbol = marketData.getSymbol();
+        this.lastTradedPrice = unbox(marketData.getLastTradedPrice());
+        this.bidPrice = unbox(marketData.getBidPrice());
+        this.midPrice = unbox(marketData.getMidPrice());
+        this.askPrice = unbox(marketData.getAskPrice());
+        this.marketTimestamp = marketData.getMarketTimestamp();
+        this.dependsOnSymbol = marketData.getDependsOnSymbol();
+        this.lastCouponDate = marketData.getLastCouponDate() != null ? LocalDate.parse(marketData.getLastCouponDate()) : null;
+        this.interestRate = unbox(marketData.getInterestRate());
+        this.volatility = unbox(marketData.getVolatility());
+        this.accruedInterest = unbox(marketData.getAccruedInterest());
+        this.theoreticalPrice = unbox(marketData.getTheoreticalPrice());
+    }
+
+    private ConsolidatedQuote(ConsolidatedQuote quote, double theoreticalPrice) {
+        this.symbol = quote.symbol;
+        this.lastTradedPrice = quote.lastTradedPrice;
+        this.bidPrice = quote.bidPrice;
+        this.midPrice = quote.midPrice;
+        this.askPrice = quote.askPrice;
+        this.marketTimestamp = quote.marketTimestamp;
+        this.dependsOnSymbol = quote.dependsOnSymbol;
+        this.lastCouponDate = quote.lastCouponDate;
+        this.interestRate = quote.interestRate;
+        this.volatility = quote.volatility;
+        this.accruedInterest = quote.accruedInterest;
+        this.theoreticalPrice = theoreticalPrice;
+    }
+
+    public static ConsolidatedQuote of(MarketData marketData) {
+        return new ConsolidatedQuote(marketData);
+    }
+
+    // From a consolidated event published by any core node
+    public static ConsolidatedQuote of(MarketDataResponseBody marketData) {
+        return new ConsolidatedQuote(marketData);
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public double getLastTradedPrice() {
+        return lastTradedPrice;
+    }
+
+    public String getDependsOnSymbol() {
+        return dependsOnSymbol;
+    }
+
+    public Double getVolatility() {
+        return box(volatility);
+    }
+
+    public ConsolidatedQuote withTheoreticalPrice(double theoreticalPrice) {
+        return new ConsolidatedQuote(this, theoreticalPrice);
+    }
+
+    public MarketDataResponseBody toResponseBody() {
+        return new MarketDataResponseBody(
+                symbol,
+                box(lastTradedPrice),
+                box(bidPrice),
+                box(midPrice),
+                box(askPrice),
+                marketTimestamp,
+                dependsOnSymbol,
+                "CONSOLIDATED",
+                lastCouponDate != null ? lastCouponDate.toString() : null,
+                box(interestRate),
+                box(volatility),
+                box(accruedInterest),
+                box(theoreticalPrice)
+        );
+    }
+
+    private static double unbox(Double value) {
+        return value != null ? value : Double.NaN;
+    }
+
+    private static Double box(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+}
@@ -0,0 +1,104 @@
+package com.scorpion.marketdata.core.broker;
+
+import com.scorpion.marketdata.core.book.ConsolidatedPriceBook;
+import com.scorpion.marketdata.core.book.ConsolidatedQuote;
+import com.scorpion.marketdata.core.dto.ConsolidatedEvent;
+import com.scorpion.marketdata.core.dto.MarketDataResponseBody;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Keeps this node's ConsolidatedPriceBook in step with writes committed on the other core nodes.
+// Every node needs every event, so the group is per node and keyed by its instance id, which stays the
+// same across restarts; its own events are applied too, which is harmless since each event is the
+// symbol's full consolidated state.
+@Component
+public class ConsolidatedEventListener implements ConsumerSeekAware {
+    private static final Logger log = LoggerFactory.getLogger(ConsolidatedEventListener.class);
+    private final ConsolidatedPriceBook consolidatedPriceBook;
+    private final long replayMs;
+    private final Set<TopicPartition> seenPartitions = new HashSet<>();
+    private long warmStarted;
+
+    public ConsolidatedEventListener(ConsolidatedPriceBook consolidatedPriceBook,
+                                     @Value("${market-data.core.consolidated-events.replay-ms:5000}") long replayMs) {
+        this.consolidatedPriceBook = consolidatedPriceBook;
+        this.replayMs = replayMs;
+    }
+
+    // The book is loaded from the database once, on the first assignment, and each partition is first
+    // read from just before that load, so a change committed during the load is not lost. A partition
+    // assigned again after a rebalance resumes from the group's committed offset.
+    @Override
+    public synchronized void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        if (seenPartitions.isEmpty()) {
+            warmStarted = System.currentTimeMillis();
+            consolidatedPriceBook.warm();
+        }
+
+        List<TopicPartition> newPartitions = assignments.keySet().stream().filter(seenPartitions::add).toList();
+
+        if (!newPartitions.isEmpty()) {
+            callback.seekToTimestamp(newPartitions, warmStarted - replayMs);
+        }
+    }
+
+    @KafkaListener(topics = ConsolidatedEventPublisher.TOPIC, groupId = "market-data-core-book-${market-data.core.instance-id:${HOSTNAME:local}}",
+            containerFactory = "queryListenerContainerFactory",
+            properties = "auto.offset.reset=latest",
+            autoStartup = "${market-data.core.consolidated-events.enabled:true}")
+    public void handleConsolidatedEvent(ConsolidatedEvent event) {
+        if (event == null || event.getSymbol() == null) {
+            log.warn("Discarding consolidated event without a symbol");
+            return;
+        }
+
+        ConsolidatedQuote quote = toQuote(event.getData());
+
+        if (quote == null && event.getData() != null) {
+            log.warn("Discarding consolidated event for {} with unreadable data", event.getSymbol());
+            return;
+        }
+
+        consolidatedPriceBook.apply(event.getSymbol(), quote);
+    }
+
+    // Binary records carry a MarketDataResponseBody; JSON records leave the untyped data as a map
+    private static ConsolidatedQuote toQuote(Object data) {
+        if (data instanceof MarketDataResponseBody marketData) {
+            return ConsolidatedQuote.of(marketData);
+        }
+
+        if (data instanceof Map<?, ?> fields) {
+            return ConsolidatedQuote.of(new MarketDataResponseBody(
+                    (String) fields.get("symbol"),
+                    toDouble(fields.get("lastTradedPrice")),
+                    toDouble(fields.get("bidPrice")),
+                    toDouble(fields.get("midPrice")),
+                    toDouble(fields.get("askPrice")),
+                    (String) fields.get("marketTimestamp"),
+                    (String) fields.get("dependsOnSymbol"),
+                    (String) fields.get("source"),
+                    (String) fields.get("lastCouponDate"),
+                    toDouble(fields.get("interestRate")),
+                    toDouble(fields.get("volatility")),
+                    toDouble(fields.get("accruedInterest")),
+                    toDouble(fields.get("theoreticalPrice"))));
+        }
+
+        return null;
+    }
+
+    private static Double toDouble(Object value) {
+        return value instanceof Number number ? number.doubleValue() : null;
+    }
+}
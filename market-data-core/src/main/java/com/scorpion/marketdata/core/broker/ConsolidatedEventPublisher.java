@@ -0,0 +1,35 @@
+package com.scorpion.marketdata.core.broker;
+
+import com.scorpion.marketdata.core.dto.ConsolidatedEvent;
+import com.scorpion.marketdata.core.dto.MarketDataResponseBody;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+@Component
+public class ConsolidatedEventPublisher {
+    private static final Logger log = LoggerFactory.getLogger(ConsolidatedEventPublisher.class);
+    public static final String TOPIC = "market-data-consolidated-events";
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final boolean enabled;
+
+    public ConsolidatedEventPublisher(KafkaTemplate<String, Object> kafkaTemplate,
+                                      @Value("${market-data.core.consolidated-events.enabled:true}") boolean enabled) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.enabled = enabled;
+    }
+
+    // Keyed by symbol so subscribers see each symbol's changes in order
+    public void publish(String symbol, MarketDataResponseBody marketData) {
+        if (enabled) {
+            kafkaTemplate.send(TOPIC, symbol, new ConsolidatedEvent(symbol, marketData)).whenComplete((result, ex) -> {
+                if (ex != null) {
+                    log.warn("Failed to publish consolidated event for {}", symbol, ex);
+                }
+            });
+        }
+    }
+}
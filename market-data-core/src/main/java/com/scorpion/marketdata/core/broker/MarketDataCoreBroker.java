@@ -2,120 +2,356 @@ package com.scorpion.marketdata.core.broker;
 
 import com.scorpion.marketdata.api.dto.*;
 import com.scorpion.marketdata.core.dto.KafkaResponse;
+import com.scorpion.marketdata.core.dto.MarketDataResponseBody;
+import com.scorpion.marketdata.core.dto.TransactionStatusDto;
+import com.scorpion.marketdata.core.jfr.TickEvent;
 import com.scorpion.marketdata.core.service.MarketDataService;
 import com.scorpion.marketdata.core.service.MarketDataServiceImpl;
+import com.scorpion.marketdata.core.timing.TimingHeaders;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.KafkaHeaders;
 import org.springframework.messaging.Message;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 public class MarketDataCoreBroker {
     private static final Logger log = LoggerFactory.getLogger(MarketDataCoreBroker.class);
     private final MarketDataService marketDataService;
     private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final StageMetrics stageMetrics;
+    // Polls waiting for the next conflation flush, in arrival order
+    private final ConcurrentLinkedQueue<ConflatedPoll> conflatedPolls = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger conflatedPending = new AtomicInteger();
+    private final boolean conflationEnabled;
+    private final int conflationMaxBatch;
+    private final int conflationMaxPending;
 
-    public MarketDataCoreBroker(MarketDataServiceImpl marketDataService, KafkaTemplate<String, Object> kafkaTemplate) {
+    // The updates of one poll and the flush that persists them
+    private record ConflatedPoll(List<Message<UpdateRequest>> messages, CompletableFuture<Void> persisted) {
+    }
+
+    public MarketDataCoreBroker(MarketDataServiceImpl marketDataService, KafkaTemplate<String, Object> kafkaTemplate, StageMetrics stageMetrics,
+                                @Value("${market-data.core.update.conflation.enabled:false}") boolean conflationEnabled,
+                                @Value("${market-data.core.update.conflation.max-batch:5000}") int conflationMaxBatch,
+                                @Value("${market-data.core.update.conflation.max-pending:20000}") int conflationMaxPending) {
         this.marketDataService = marketDataService;
         this.kafkaTemplate = kafkaTemplate;
+        this.stageMetrics = stageMetrics;
+        this.conflationEnabled = conflationEnabled;
+        this.conflationMaxBatch = conflationMaxBatch;
+        this.conflationMaxPending = conflationMaxPending;
     }
 
-    @KafkaListener(topics = "market-data-update", groupId = "market-data-core")
-    public void handleMarketDataUpdate(UpdateRequest request) {
+    // Replies go to the topic and partition the requesting API instance asked for, falling back
+    // to the shared response topic for requests that carry no reply headers
+    private void sendResponse(KafkaResponse kafkaResponse, byte[] replyTopic, byte[] replyPartition, RequestTiming timing) {
+        MessageBuilder<KafkaResponse> message = MessageBuilder
+                .withPayload(kafkaResponse)
+                .setHeader(KafkaHeaders.TOPIC, replyTopic != null ? new String(replyTopic, StandardCharsets.UTF_8) : "market-data-response");
+
+        if (replyPartition != null) {
+            message.setHeader(KafkaHeaders.PARTITION, ByteBuffer.wrap(replyPartition).getInt());
+        }
+
+        long replySentMicros = TimingHeaders.nowMicros();
+        timing.addHeaders(message, replySentMicros);
+
+        // A streamed reply is timed once, on its last chunk
+        if (!Boolean.FALSE.equals(kafkaResponse.getLast())) {
+            stageMetrics.record(timing, replySentMicros);
+        }
+
+        kafkaTemplate.send(message.build()).whenComplete((result, ex) -> {
+            if (ex != null) {
+                log.warn("Failed to send market data response {}", kafkaResponse.getCorrelationId(), ex);
+            }
+        });
+    }
+
+    @KafkaListener(topics = "market-data-update", groupId = "market-data-core", containerFactory = "writeListenerContainerFactory",
+            concurrency = "${market-data.core.update.concurrency:10}",
+            properties = "max.poll.records=${market-data.core.update.max-poll-records:500}",
+            autoStartup = "#{!${market-data.core.update.batch-enabled:false} && !${market-data.core.update.conflation.enabled:false}}")
+    public void handleMarketDataUpdate(UpdateRequest request,
+            @Header(name = KafkaHeaders.REPLY_TOPIC, required = false) byte[] replyTopic,
+            @Header(name = KafkaHeaders.REPLY_PARTITION, required = false) byte[] replyPartition,
+            @Header(name = TimingHeaders.API_SENT, required = false) byte[] apiSent) {
+        TickEvent event = new TickEvent();
+        event.begin();
+
+        RequestTiming timing = RequestTiming.received("market-data-update", apiSent);
         String correlationId = request.getCorrelationId();
         MarketDataRequestBody marketDataRequestBody = request.getMarketData();
 
-        KafkaResponse kafkaResponse = new KafkaResponse(correlationId, marketDataService.saveMarketData(marketDataRequestBody));
+        timing.processStarted();
+        TransactionStatusDto status = marketDataService.saveMarketData(marketDataRequestBody);
+        KafkaResponse kafkaResponse = new KafkaResponse(correlationId, status);
+        timing.processEnded();
 
         log.warn("Received market data update request");
 
-        Message<KafkaResponse> message = MessageBuilder
-                .withPayload(kafkaResponse)
-                .setHeader(KafkaHeaders.TOPIC, "market-data-response")
-                .build();
-
-        kafkaTemplate.send(message);
+        sendResponse(kafkaResponse, replyTopic, replyPartition, timing);
         log.warn("Processing market data update response");
+        commitTickEvent(event, request, status.getStatus() ? "saved" : "rejected");
+    }
+
+    private void commitTickEvent(TickEvent event, UpdateRequest request, String outcome) {
+        event.end();
+
+        if (event.shouldCommit()) {
+            event.correlationId = request.getCorrelationId();
+            event.symbol = request.getMarketData() != null ? request.getMarketData().getSymbol() : null;
+            event.source = request.getMarketData() != null ? request.getMarketData().getSource() : null;
+            event.outcome = outcome;
+            event.commit();
+        }
+    }
+
+    // Batch mode: each poll (up to max.poll.records) is coalesced and persisted in one transaction,
+    // while every request still gets its own reply. Conflation mode consumes the same way.
+    @KafkaListener(topics = "market-data-update", groupId = "market-data-core", containerFactory = "writeListenerContainerFactory",
+            concurrency = "${market-data.core.update.concurrency:10}",
+            properties = "max.poll.records=${market-data.core.update.max-poll-records:500}",
+            batch = "true", autoStartup = "#{${market-data.core.update.batch-enabled:false} || ${market-data.core.update.conflation.enabled:false}}")
+    public void handleMarketDataUpdateBatch(List<Message<UpdateRequest>> messages) {
+        log.warn("Received market data update batch of {} requests", messages.size());
+
+        if (conflationEnabled) {
+            conflate(messages);
+        } else {
+            saveMarketDataBatch(messages, TimingHeaders.nowMicros());
+        }
+
+        log.warn("Processing market data update batch response");
+    }
+
+    // Conflation mode: the polls of every listener thread within one window are merged per symbol and
+    // source, so a burst costs one write per key. The listener returns, and the poll's offsets are
+    // committed, only once the flush has persisted it; a failed flush is rethrown so the poll is redelivered.
+    private void conflate(List<Message<UpdateRequest>> messages) {
+        long receivedMicros = TimingHeaders.nowMicros();
+        List<Message<UpdateRequest>> received = new ArrayList<>(messages.size());
+
+        for (Message<UpdateRequest> message : messages) {
+            received.add(MessageBuilder.fromMessage(message).setHeader(TimingHeaders.CORE_RECEIVED, TimingHeaders.encode(receivedMicros)).build());
+        }
+
+        ConflatedPoll poll = new ConflatedPoll(received, new CompletableFuture<>());
+        conflatedPolls.add(poll);
+
+        // Bounds what is held between flushes; the overflowing listener thread flushes the window itself
+        if (conflatedPending.addAndGet(received.size()) > conflationMaxPending) {
+            flushConflatedUpdates();
+        }
+
+        poll.persisted().join();
+    }
+
+    // Synchronized so a flush from a listener thread or a delete never interleaves with the scheduled one
+    @Scheduled(fixedDelayString = "${market-data.core.update.conflation.window-ms:20}")
+    public synchronized void flushConflatedUpdates() {
+        while (!conflatedPolls.isEmpty()) {
+            List<ConflatedPoll> polls = new ArrayList<>();
+            List<Message<UpdateRequest>> messages = new ArrayList<>();
+            ConflatedPoll poll;
+
+            // Whole polls only, so each is persisted by exactly one flush
+            while (messages.size() < conflationMaxBatch && (poll = conflatedPolls.poll()) != null) {
+                polls.add(poll);
+                messages.addAll(poll.messages());
+            }
+
+            conflatedPending.addAndGet(-messages.size());
+
+            try {
+                saveMarketDataBatch(messages, -1);
+            } catch (RuntimeException e) {
+                polls.forEach(failed -> failed.persisted().completeExceptionally(e));
+                continue;
+            }
+
+            polls.forEach(persisted -> persisted.persisted().complete(null));
+        }
+    }
+
+    // Persists the merged state in one transaction and still replies to every original request.
+    // Conflated messages carry their own receive time; otherwise receivedMicros applies to all.
+    private void saveMarketDataBatch(List<Message<UpdateRequest>> messages, long receivedMicros) {
+        List<MarketDataRequestBody> marketDataList = new ArrayList<>(messages.size());
+
+        for (Message<UpdateRequest> message : messages) {
+            marketDataList.add(message.getPayload().getMarketData());
+        }
+
+        long processStartedMicros = TimingHeaders.nowMicros();
+        List<TransactionStatusDto> statuses = marketDataService.saveMarketDataBatch(marketDataList);
+        long processEndedMicros = TimingHeaders.nowMicros();
+
+        for (int i = 0; i < messages.size(); i++) {
+            Message<UpdateRequest> message = messages.get(i);
+            KafkaResponse kafkaResponse = new KafkaResponse(message.getPayload().getCorrelationId(), statuses.get(i));
+            byte[] received = message.getHeaders().get(TimingHeaders.CORE_RECEIVED, byte[].class);
+            RequestTiming timing = RequestTiming.received("market-data-update", message.getHeaders().get(TimingHeaders.API_SENT, byte[].class),
+                    received != null ? TimingHeaders.decode(received) : receivedMicros);
+            timing.processed(processStartedMicros, processEndedMicros);
+
+            sendResponse(kafkaResponse,
+                    message.getHeaders().get(KafkaHeaders.REPLY_TOPIC, byte[].class),
+                    message.getHeaders().get(KafkaHeaders.REPLY_PARTITION, byte[].class),
+                    timing);
+        }
     }
 
-    @KafkaListener(topics = "market-data-query-specific", groupId = "market-data-core")
-    public void handleMarketDataQuerySpecific(GetSpecificRequest request) {
+    // Bulk ingest: each message is one chunk of a bulk request, applied in one transaction
+    @KafkaListener(topics = "market-data-update-batch", groupId = "market-data-core", containerFactory = "writeListenerContainerFactory",
+            concurrency = "${market-data.core.update-batch.concurrency:3}",
+            properties = "max.poll.records=${market-data.core.update-batch.max-poll-records:10}")
+    public void handleMarketDataUpdateBulk(BatchUpdateRequest request,
+            @Header(name = KafkaHeaders.REPLY_TOPIC, required = false) byte[] replyTopic,
+            @Header(name = KafkaHeaders.REPLY_PARTITION, required = false) byte[] replyPartition,
+            @Header(name = TimingHeaders.API_SENT, required = false) byte[] apiSent) {
+        RequestTiming timing = RequestTiming.received("market-data-update-batch", apiSent);
+        String correlationId = request.getCorrelationId();
+        List<MarketDataRequestBody> marketDataList = request.getMarketData();
+
+        log.warn("Received market data bulk update chunk of {} records", marketDataList != null ? marketDataList.size() : 0);
+
+        timing.processStarted();
+        KafkaResponse kafkaResponse = new KafkaResponse(correlationId, marketDataService.saveMarketDataBatch(marketDataList));
+        timing.processEnded();
+
+        sendResponse(kafkaResponse, replyTopic, replyPartition, timing);
+        log.warn("Processing market data bulk update response");
+    }
+
+    @KafkaListener(topics = "market-data-query-specific", groupId = "market-data-core", containerFactory = "queryListenerContainerFactory",
+            concurrency = "${market-data.core.query-specific.concurrency:10}",
+            properties = "max.poll.records=${market-data.core.query-specific.max-poll-records:100}")
+    public void handleMarketDataQuerySpecific(GetSpecificRequest request,
+            @Header(name = KafkaHeaders.REPLY_TOPIC, required = false) byte[] replyTopic,
+            @Header(name = KafkaHeaders.REPLY_PARTITION, required = false) byte[] replyPartition,
+            @Header(name = TimingHeaders.API_SENT, required = false) byte[] apiSent) {
+        RequestTiming timing = RequestTiming.received("market-data-query-specific", apiSent);
         String correlationId = request.getCorrelationId();
         String symbol = request.getSymbol();
         String source = request.getSource();
 
+        timing.processStarted();
         KafkaResponse kafkaResponse = new KafkaResponse(correlationId, marketDataService.getMarketDataSpecific(symbol, source));
+        timing.processEnded();
 
         log.warn("Received market data query specific request");
 
-        Message<KafkaResponse> message = MessageBuilder
-                .withPayload(kafkaResponse)
-                .setHeader(KafkaHeaders.TOPIC, "market-data-response")
-                .build();
-
-        kafkaTemplate.send(message);
+        sendResponse(kafkaResponse, replyTopic, replyPartition, timing);
         log.warn("Processing market data query specific response");
     }
 
-    @KafkaListener(topics = "market-data-query-consolidated", groupId = "market-data-core")
-    public void handleMarketDataQueryConsolidated(GetConsolidatedRequest request) {
+    @KafkaListener(topics = "market-data-query-consolidated", groupId = "market-data-core", containerFactory = "queryListenerContainerFactory",
+            concurrency = "${market-data.core.query-consolidated.concurrency:10}",
+            properties = "max.poll.records=${market-data.core.query-consolidated.max-poll-records:100}")
+    public void handleMarketDataQueryConsolidated(GetConsolidatedRequest request,
+            @Header(name = KafkaHeaders.REPLY_TOPIC, required = false) byte[] replyTopic,
+            @Header(name = KafkaHeaders.REPLY_PARTITION, required = false) byte[] replyPartition,
+            @Header(name = TimingHeaders.API_SENT, required = false) byte[] apiSent) {
+        RequestTiming timing = RequestTiming.received("market-data-query-consolidated", apiSent);
         String correlationId = request.getCorrelationId();
         String symbol = request.getSymbol();
 
+        timing.processStarted();
         KafkaResponse kafkaResponse = new KafkaResponse(correlationId, marketDataService.getMarketDataConsolidated(symbol));
+        timing.processEnded();
 
         log.warn("Received market data query consolidated request");
 
-        Message<KafkaResponse> message = MessageBuilder
-                .withPayload(kafkaResponse)
-                .setHeader(KafkaHeaders.TOPIC, "market-data-response")
-                .build();
-
-        kafkaTemplate.send(message);
+        sendResponse(kafkaResponse, replyTopic, replyPartition, timing);
         log.warn("Processing market data query consolidated response");
     }
 
-    @KafkaListener(topics = "market-data-query-consolidated-batch", groupId = "market-data-core")
-    public void handleMarketDataQueryConsolidatedBatch(GetConsolidatedBatchRequest request) {
+    @KafkaListener(topics = "market-data-query-consolidated-batch", groupId = "market-data-core", containerFactory = "queryListenerContainerFactory",
+            concurrency = "${market-data.core.query-consolidated-batch.concurrency:3}",
+            properties = "max.poll.records=${market-data.core.query-consolidated-batch.max-poll-records:10}")
+    public void handleMarketDataQueryConsolidatedBatch(GetConsolidatedBatchRequest request,
+            @Header(name = KafkaHeaders.REPLY_TOPIC, required = false) byte[] replyTopic,
+            @Header(name = KafkaHeaders.REPLY_PARTITION, required = false) byte[] replyPartition,
+            @Header(name = TimingHeaders.API_SENT, required = false) byte[] apiSent) {
+        RequestTiming timing = RequestTiming.received("market-data-query-consolidated-batch", apiSent);
         String correlationId = request.getCorrelationId();
         List<String> symbols = request.getSymbol();
 
-        KafkaResponse kafkaResponse = new KafkaResponse(correlationId, marketDataService.getMarketDataBatch(symbols));
-
         log.warn("Received market data query consolidated batch request");
 
-        Message<KafkaResponse> message = MessageBuilder
-                .withPayload(kafkaResponse)
-                .setHeader(KafkaHeaders.TOPIC, "market-data-response")
-                .build();
+        timing.processStarted();
+
+        // A streamed request always gets a last chunk, even an empty one, or the caller's stream never ends
+        if (request.getChunkSize() != null && request.getChunkSize() > 0) {
+            streamMarketDataBatch(correlationId, symbols != null ? symbols : List.of(), request.getChunkSize(), replyTopic, replyPartition, timing);
+            return;
+        }
+
+        KafkaResponse kafkaResponse = new KafkaResponse(correlationId, marketDataService.getMarketDataBatch(symbols));
+        timing.processEnded();
 
-        kafkaTemplate.send(message);
+        sendResponse(kafkaResponse, replyTopic, replyPartition, timing);
         log.warn("Processing market data query consolidated batch response");
     }
 
-    @KafkaListener(topics = "market-data-delete", groupId = "market-data-core")
-    public void handleMarketDataDelete(DeleteRequest request) {
+    // Each chunk is resolved and sent before the next is built, so only one chunk is held at a time.
+    // All chunks go to the same reply partition and therefore arrive in order.
+    private void streamMarketDataBatch(String correlationId, List<String> symbols, int chunkSize, byte[] replyTopic, byte[] replyPartition,
+                                       RequestTiming timing) {
+        int sequence = 0;
+        int from = 0;
+
+        do {
+            int to = Math.min(from + chunkSize, symbols.size());
+            List<MarketDataResponseBody> chunk = marketDataService.getMarketDataBatch(symbols.subList(from, to));
+            timing.processEnded();
+
+            sendResponse(new KafkaResponse(correlationId, chunk, sequence++, to == symbols.size()), replyTopic, replyPartition, timing);
+            from = to;
+        } while (from < symbols.size());
+    }
+
+    @KafkaListener(topics = "market-data-delete", groupId = "market-data-core", containerFactory = "writeListenerContainerFactory",
+            concurrency = "${market-data.core.delete.concurrency:10}",
+            properties = "max.poll.records=${market-data.core.delete.max-poll-records:500}")
+    public void handleMarketDataDelete(DeleteRequest request,
+            @Header(name = KafkaHeaders.REPLY_TOPIC, required = false) byte[] replyTopic,
+            @Header(name = KafkaHeaders.REPLY_PARTITION, required = false) byte[] replyPartition,
+            @Header(name = TimingHeaders.API_SENT, required = false) byte[] apiSent) {
+        RequestTiming timing = RequestTiming.received("market-data-delete", apiSent);
         String correlationId = request.getCorrelationId();
         String symbol = request.getSymbol();
         String source = request.getSource();
 
+        // Updates received before the delete must not be written after it
+        if (conflationEnabled) {
+            flushConflatedUpdates();
+        }
+
+        timing.processStarted();
         KafkaResponse kafkaResponse = new KafkaResponse(correlationId, marketDataService.deleteMarketData(symbol, source));
+        timing.processEnded();
 
         log.warn("Received market data delete request");
 
-        Message<KafkaResponse> message = MessageBuilder
-                .withPayload(kafkaResponse)
-                .setHeader(KafkaHeaders.TOPIC, "market-data-response")
-                .build();
-
-        kafkaTemplate.send(message);
+        sendResponse(kafkaResponse, replyTopic, replyPartition, timing);
         log.warn("Processing market data delete response");
     }
 }
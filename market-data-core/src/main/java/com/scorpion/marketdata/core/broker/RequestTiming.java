@@ -0,0 +1,75 @@
+package com.scorpion.marketdata.core.broker;
+
+import com.scorpion.marketdata.core.timing.TimingHeaders;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.nio.charset.StandardCharsets;
+
+// Timestamps of one request's path through core, sent back on its reply
+class RequestTiming {
+    private final String operation;
+    private final long apiSentMicros;
+    private final long receivedMicros;
+    private long processStartedMicros;
+    private long processEndedMicros;
+
+    private RequestTiming(String operation, long apiSentMicros, long receivedMicros) {
+        this.operation = operation;
+        this.apiSentMicros = apiSentMicros;
+        this.receivedMicros = receivedMicros;
+    }
+
+    static RequestTiming received(String operation, byte[] apiSent) {
+        return received(operation, apiSent, TimingHeaders.nowMicros());
+    }
+
+    static RequestTiming received(String operation, byte[] apiSent, long receivedMicros) {
+        return new RequestTiming(operation, TimingHeaders.decode(apiSent), receivedMicros);
+    }
+
+    void processStarted() {
+        processStartedMicros = TimingHeaders.nowMicros();
+    }
+
+    void processEnded() {
+        processEndedMicros = TimingHeaders.nowMicros();
+    }
+
+    // A batch shares one unit of work across requests received at different times
+    void processed(long startedMicros, long endedMicros) {
+        processStartedMicros = startedMicros;
+        processEndedMicros = endedMicros;
+    }
+
+    String getOperation() {
+        return operation;
+    }
+
+    long getApiSentMicros() {
+        return apiSentMicros;
+    }
+
+    long getReceivedMicros() {
+        return receivedMicros;
+    }
+
+    long getProcessStartedMicros() {
+        return processStartedMicros;
+    }
+
+    long getProcessEndedMicros() {
+        return processEndedMicros;
+    }
+
+    void addHeaders(MessageBuilder<?> message, long replySentMicros) {
+        message.setHeader(TimingHeaders.OPERATION, operation.getBytes(StandardCharsets.UTF_8))
+                .setHeader(TimingHeaders.CORE_RECEIVED, TimingHeaders.encode(receivedMicros))
+                .setHeader(TimingHeaders.CORE_PROCESS_STARTED, TimingHeaders.encode(processStartedMicros))
+                .setHeader(TimingHeaders.CORE_PROCESS_ENDED, TimingHeaders.encode(processEndedMicros))
+                .setHeader(TimingHeaders.CORE_REPLY_SENT, TimingHeaders.encode(replySentMicros));
+
+        if (apiSentMicros >= 0) {
+            message.setHeader(TimingHeaders.API_SENT, TimingHeaders.encode(apiSentMicros));
+        }
+    }
+}
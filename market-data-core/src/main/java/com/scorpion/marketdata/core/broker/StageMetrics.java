@@ -0,0 +1,45 @@
+package com.scorpion.marketdata.core.broker;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// market.data.core.stage{operation, stage}, with percentile histograms:
+// request.kafka  API send -> core receive (Kafka transit and consumer lag; cross-host clocks)
+// core.queue     core receive -> processing start (batch and conflation waits)
+// core.process   the service call, including the database transaction for writes
+// core.reply     processing end -> reply handed to the producer
+@Component
+public class StageMetrics {
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public StageMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    void record(RequestTiming timing, long replySentMicros) {
+        if (timing.getApiSentMicros() >= 0) {
+            record(timing.getOperation(), "request.kafka", timing.getReceivedMicros() - timing.getApiSentMicros());
+        }
+
+        record(timing.getOperation(), "core.queue", timing.getProcessStartedMicros() - timing.getReceivedMicros());
+        record(timing.getOperation(), "core.process", timing.getProcessEndedMicros() - timing.getProcessStartedMicros());
+        record(timing.getOperation(), "core.reply", replySentMicros - timing.getProcessEndedMicros());
+    }
+
+    // Negative spans come from clock skew between hosts and are dropped
+    private void record(String operation, String stage, long micros) {
+        if (micros >= 0) {
+            timers.computeIfAbsent(operation + ":" + stage, key -> Timer.builder("market.data.core.stage")
+                    .description("Time spent in each stage of a market data request")
+                    .tag("operation", operation)
+                    .tag("stage", stage)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)).record(micros, TimeUnit.MICROSECONDS);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.scorpion.marketdata.core.cache;
+
+import com.scorpion.marketdata.core.dto.MarketDataResponseBody;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+// Entries are MarketDataResponseBody values keyed by "symbol:source", the same key
+// @Cacheable getMarketDataSpecific uses, so the write path can refresh what reads see.
+@Component
+public class MarketDataCache {
+    public static final String CACHE_NAME = "market_data";
+    private final Cache cache;
+
+    public MarketDataCache(CacheManager cacheManager) {
+        this.cache = cacheManager.getCache(CACHE_NAME);
+    }
+
+    public static String key(String symbol, String source) {
+        return symbol + ":" + source;
+    }
+
+    public void put(MarketDataResponseBody marketData) {
+        if (cache != null) {
+            cache.put(key(marketData.getSymbol(), marketData.getSource()), marketData);
+        }
+    }
+
+    public void evict(String symbol, String source) {
+        if (cache != null) {
+            cache.evict(key(symbol, source));
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.scorpion.marketdata.core.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+
+// Bounded local cache in front of a shared remote cache. Remote failures are logged and treated as
+// misses, so an unavailable Redis degrades to local caching instead of failing requests.
+public class TieredCache implements Cache {
+    private static final Logger log = LoggerFactory.getLogger(TieredCache.class);
+    private final Cache local;
+    private final Cache remote;
+    private final Counter remoteHits;
+    private final Counter remoteMisses;
+
+    public TieredCache(Cache local, Cache remote, MeterRegistry meterRegistry) {
+        this.local = local;
+        this.remote = remote;
+        this.remoteHits = Counter.builder("market.data.core.cache.remote")
+                .tag("cache", remote.getName())
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.remoteMisses = Counter.builder("market.data.core.cache.remote")
+                .tag("cache", remote.getName())
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String getName() {
+        return remote.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper value = local.get(key);
+
+        if (value != null) {
+            return value;
+        }
+
+        try {
+            value = remote.get(key);
+        } catch (RuntimeException e) {
+            log.warn("Remote cache read failed for key {}", key, e);
+            return null;
+        }
+
+        if (value != null) {
+            remoteHits.increment();
+            local.put(key, value.get());
+        } else {
+            remoteMisses.increment();
+        }
+
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper value = get(key);
+
+        if (value == null || value.get() == null) {
+            return null;
+        }
+
+        if (type != null && !type.isInstance(value.get())) {
+            throw new IllegalStateException("Cached value for key " + key + " is not of required type " + type.getName());
+        }
+
+        return (T) value.get();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper value = get(key);
+
+        if (value != null) {
+            return (T) value.get();
+        }
+
+        T loaded;
+
+        try {
+            loaded = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+
+        put(key, loaded);
+        return loaded;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        // Neither tier stores nulls; a null value just drops any stale entry
+        if (value == null) {
+            evict(key);
+            return;
+        }
+
+        try {
+            remote.put(key, value);
+        } catch (RuntimeException e) {
+            log.warn("Remote cache write failed for key {}", key, e);
+        }
+
+        local.put(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        try {
+            remote.evict(key);
+        } catch (RuntimeException e) {
+            log.warn("Remote cache evict failed for key {}", key, e);
+        }
+
+        local.evict(key);
+    }
+
+    @Override
+    public void clear() {
+        try {
+            remote.clear();
+        } catch (RuntimeException e) {
+            log.warn("Remote cache clear failed", e);
+        }
+
+        local.clear();
+    }
+}
@@ -0,0 +1,59 @@
+package com.scorpion.marketdata.core.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.scorpion.marketdata.core.cache.MarketDataCache;
+import com.scorpion.marketdata.core.cache.TieredCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+@ConditionalOnProperty(name = "market-data.core.cache.mode", havingValue = "redis", matchIfMissing = true)
+public class CacheConfig {
+
+    @Value("${market-data.core.cache.local.maximum-size:100000}")
+    private long localMaximumSize;
+
+    @Value("${market-data.core.cache.local.ttl-ms:5000}")
+    private long localTtlMs;
+
+    @Value("${market-data.core.cache.remote.ttl-ms:3600000}")
+    private long remoteTtlMs;
+
+    @Bean
+    public CacheManager cacheManager(RedisConnectionFactory redisConnectionFactory, MeterRegistry meterRegistry) {
+        // The local TTL bounds how long another core node's write can go unseen here
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> localCache = Caffeine.newBuilder()
+                .maximumSize(localMaximumSize)
+                .expireAfterWrite(Duration.ofMillis(localTtlMs))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, localCache, MarketDataCache.CACHE_NAME + "_local");
+
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(redisConnectionFactory)
+                .cacheDefaults(RedisCacheConfiguration.defaultCacheConfig()
+                        .entryTtl(Duration.ofMillis(remoteTtlMs))
+                        .disableCachingNullValues())
+                .build();
+        redisCacheManager.afterPropertiesSet();
+
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(new TieredCache(
+                new CaffeineCache(MarketDataCache.CACHE_NAME, localCache, false),
+                redisCacheManager.getCache(MarketDataCache.CACHE_NAME),
+                meterRegistry)));
+        return cacheManager;
+    }
+}
@@ -1,17 +1,97 @@
 package com.scorpion.marketdata.core.config;
 
 import com.hazelcast.config.Config;
+import com.hazelcast.config.EvictionConfig;
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.JoinConfig;
 import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.MaxSizePolicy;
+import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.spring.cache.HazelcastCacheManager;
+import com.scorpion.marketdata.core.cache.MarketDataCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-//@Configuration
+import java.util.List;
+
+// Backs the per-source reads (getMarketDataSpecific) only. Consolidated reads are served from each
+// node's ConsolidatedPriceBook, which consolidated events keep consistent across nodes, so they never
+// reach this map.
+@Configuration
+@ConditionalOnProperty(name = "market-data.core.cache.mode", havingValue = "hazelcast")
 public class HazelcastConfig {
 
-//    @Bean
-//    public Config hazelcastConfig() {
-//        return new Config().setInstanceName("hazelcast-instance")
-//                .addMapConfig(new MapConfig().setName("market-data-cache")
-//                        .setTimeToLiveSeconds(3600));
-//    }
+    @Value("${market-data.core.cache.hazelcast.cluster-name:market-data-core}")
+    private String clusterName;
+
+    // A single member bound to loopback with discovery disabled, for tests and local runs
+    @Value("${market-data.core.cache.hazelcast.local-only:false}")
+    private boolean localOnly;
+
+    // Empty means multicast discovery
+    @Value("${market-data.core.cache.hazelcast.members:}")
+    private List<String> members;
+
+    @Value("${market-data.core.cache.hazelcast.ttl-seconds:3600}")
+    private int ttlSeconds;
+
+    @Value("${market-data.core.cache.hazelcast.max-size-per-node:100000}")
+    private int maxSizePerNode;
+
+    @Value("${market-data.core.cache.hazelcast.near-cache.max-size:100000}")
+    private int nearCacheMaxSize;
+
+    @Value("${market-data.core.cache.hazelcast.near-cache.ttl-seconds:60}")
+    private int nearCacheTtlSeconds;
+
+    @Bean
+    public Config hazelcastConfig() {
+        Config config = new Config()
+                .setInstanceName("market-data-core-hazelcast")
+                .setClusterName(clusterName);
+
+        JoinConfig join = config.getNetworkConfig().getJoin();
+
+        if (localOnly) {
+            config.setProperty("hazelcast.phone.home.enabled", "false");
+            config.getNetworkConfig().getInterfaces().setEnabled(true).addInterface("127.0.0.1");
+            join.getMulticastConfig().setEnabled(false);
+            join.getAutoDetectionConfig().setEnabled(false);
+            join.getTcpIpConfig().setEnabled(false);
+        } else if (!members.isEmpty()) {
+            join.getMulticastConfig().setEnabled(false);
+            join.getTcpIpConfig().setEnabled(true).setMembers(members);
+        }
+
+        // Every core node keeps the entries it reads; writes on any node invalidate them cluster-wide
+        NearCacheConfig nearCacheConfig = new NearCacheConfig()
+                .setInMemoryFormat(InMemoryFormat.OBJECT)
+                .setInvalidateOnChange(true)
+                .setCacheLocalEntries(true)
+                .setTimeToLiveSeconds(nearCacheTtlSeconds)
+                .setEvictionConfig(new EvictionConfig()
+                        .setEvictionPolicy(EvictionPolicy.LRU)
+                        .setMaxSizePolicy(MaxSizePolicy.ENTRY_COUNT)
+                        .setSize(nearCacheMaxSize));
+
+        config.addMapConfig(new MapConfig(MarketDataCache.CACHE_NAME)
+                .setTimeToLiveSeconds(ttlSeconds)
+                .setEvictionConfig(new EvictionConfig()
+                        .setEvictionPolicy(EvictionPolicy.LRU)
+                        .setMaxSizePolicy(MaxSizePolicy.PER_NODE)
+                        .setSize(maxSizePerNode))
+                .setNearCacheConfig(nearCacheConfig));
+
+        return config;
+    }
+
+    @Bean
+    public CacheManager cacheManager(HazelcastInstance hazelcastInstance) {
+        return new HazelcastCacheManager(hazelcastInstance);
+    }
 }
@@ -0,0 +1,79 @@
+package com.scorpion.marketdata.core.config;
+
+import com.scorpion.marketdata.core.serde.MarketDataBinaryDeserializer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaConsumerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+
+import java.util.Properties;
+
+@Configuration
+public class KafkaConsumerConfig {
+
+    // Replaces the JsonDeserializer from application.yaml; JSON records are still accepted
+    @Bean
+    @ConditionalOnProperty(name = "market-data.core.serde", havingValue = "binary")
+    @SuppressWarnings("unchecked")
+    public DefaultKafkaConsumerFactoryCustomizer binaryConsumerFactoryCustomizer() {
+        return consumerFactory -> ((DefaultKafkaConsumerFactory<Object, Object>) consumerFactory)
+                .setValueDeserializerSupplier(MarketDataBinaryDeserializer::new);
+    }
+
+    // Updates, bulk chunks and deletes; fetches wait for fuller batches since each poll can be persisted together
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> writeListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory,
+            @Value("${market-data.core.consumer.write.ack-mode:BATCH}") ContainerProperties.AckMode ackMode,
+            @Value("${market-data.core.consumer.write.fetch-min-bytes:1}") int fetchMinBytes,
+            @Value("${market-data.core.consumer.write.fetch-max-wait-ms:500}") int fetchMaxWaitMs) {
+        return listenerContainerFactory(configurer, consumerFactory, "market-data-write-", ackMode, fetchMinBytes, fetchMaxWaitMs);
+    }
+
+    // Queries get their own containers and consumer threads, so a backlog of writes never delays a read
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> queryListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory,
+            @Value("${market-data.core.consumer.query.ack-mode:BATCH}") ContainerProperties.AckMode ackMode,
+            @Value("${market-data.core.consumer.query.fetch-min-bytes:1}") int fetchMinBytes,
+            @Value("${market-data.core.consumer.query.fetch-max-wait-ms:10}") int fetchMaxWaitMs) {
+        return listenerContainerFactory(configurer, consumerFactory, "market-data-query-", ackMode, fetchMinBytes, fetchMaxWaitMs);
+    }
+
+    // Listeners take no Acknowledgment argument, so the MANUAL ack modes are not supported here
+    private ConcurrentKafkaListenerContainerFactory<Object, Object> listenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory,
+            String threadNamePrefix,
+            ContainerProperties.AckMode ackMode,
+            int fetchMinBytes,
+            int fetchMaxWaitMs) {
+        if (ackMode == ContainerProperties.AckMode.MANUAL || ackMode == ContainerProperties.AckMode.MANUAL_IMMEDIATE) {
+            throw new IllegalArgumentException("Unsupported ack mode for market data listeners: " + ackMode);
+        }
+
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+
+        Properties consumerProperties = new Properties();
+        consumerProperties.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, String.valueOf(fetchMinBytes));
+        consumerProperties.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, String.valueOf(fetchMaxWaitMs));
+
+        ContainerProperties containerProperties = factory.getContainerProperties();
+        containerProperties.setAckMode(ackMode);
+        containerProperties.setKafkaConsumerProperties(consumerProperties);
+        containerProperties.setListenerTaskExecutor(new SimpleAsyncTaskExecutor(threadNamePrefix));
+
+        return factory;
+    }
+}
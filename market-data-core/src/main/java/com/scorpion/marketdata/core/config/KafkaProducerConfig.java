@@ -1,6 +1,7 @@
 package com.scorpion.marketdata.core.config;
 
 import org.apache.kafka.clients.producer.ProducerConfig;
+import com.scorpion.marketdata.core.serde.MarketDataBinarySerializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -10,6 +11,7 @@ import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
 import org.springframework.kafka.support.serializer.JsonSerializer;
 
+import java.util.HashMap;
 import java.util.Map;
 
 @Configuration
@@ -18,12 +20,61 @@ public class KafkaProducerConfig {
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    // json (default) or binary; switch the consumers first, since in binary mode they still read JSON
+    @Value("${market-data.core.serde:json}")
+    private String serde;
+
+    // low-latency sends every record at once; throughput waits up to linger-ms to fill larger,
+    // compressed batches. The settings below override the profile when set.
+    @Value("${market-data.core.producer.profile:low-latency}")
+    private String profile;
+
+    @Value("${market-data.core.producer.linger-ms:}")
+    private String lingerMs;
+
+    @Value("${market-data.core.producer.batch-size:}")
+    private String batchSize;
+
+    @Value("${market-data.core.producer.compression-type:}")
+    private String compressionType;
+
+    @Value("${market-data.core.producer.acks:}")
+    private String acks;
+
+    @Value("${market-data.core.producer.enable-idempotence:}")
+    private String enableIdempotence;
+
     public Map<String, Object> producerConfigs() {
-        return Map.of(
-                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers,
-                ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
-                ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class
-        );
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, "binary".equals(serde) ? MarketDataBinarySerializer.class : JsonSerializer.class);
+        props.put(ProducerConfig.ACKS_CONFIG, "all");
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+
+        if ("throughput".equals(profile)) {
+            props.put(ProducerConfig.LINGER_MS_CONFIG, 10);
+            props.put(ProducerConfig.BATCH_SIZE_CONFIG, 131072);
+            props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4");
+        } else {
+            props.put(ProducerConfig.LINGER_MS_CONFIG, 0);
+            props.put(ProducerConfig.BATCH_SIZE_CONFIG, 16384);
+            props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, "none");
+        }
+
+        putIfSet(props, ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        putIfSet(props, ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        putIfSet(props, ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+        putIfSet(props, ProducerConfig.ACKS_CONFIG, acks);
+        putIfSet(props, ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, enableIdempotence);
+
+        return props;
+    }
+
+    private static void putIfSet(Map<String, Object> props, String key, String value) {
+        if (value != null && !value.isBlank()) {
+            props.put(key, value.trim());
+        }
     }
 
     @Bean
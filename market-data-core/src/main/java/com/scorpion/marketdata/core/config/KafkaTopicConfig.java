@@ -16,4 +16,13 @@ public class KafkaTopicConfig {
                 .replicas(3)
                 .build();
     }
+
+    @Bean
+    public NewTopic marketDataConsolidatedEventsTopic() {
+        return TopicBuilder
+                .name("market-data-consolidated-events")
+                .partitions(10)
+                .replicas(3)
+                .build();
+    }
 }
@@ -5,18 +5,26 @@ import jakarta.persistence.*;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "market_data")
+@Table(
+        name = "market_data",
+        uniqueConstraints = @UniqueConstraint(name = "uk_market_data_symbol_source", columnNames = {"symbol", "source"}),
+        indexes = @Index(name = "idx_market_data_depends_on_symbol", columnList = "depends_on_symbol")
+)
 public class MarketData {
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO)
     private Long id;
+    @Column(name = "symbol")
     private String symbol;
     private Double lastTradedPrice;
     private Double bidPrice;
     private Double midPrice;
     private Double askPrice;
+    @Column(name = "market_timestamp")
     private String marketTimestamp;
+    @Column(name = "depends_on_symbol")
     private String dependsOnSymbol;
+    @Column(name = "source")
     private String source;
     private LocalDate lastCouponDate;
     private Double interestRate;
@@ -0,0 +1,41 @@
+package com.scorpion.marketdata.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Merging a tick into a symbol's CONSOLIDATED row, or rebuilding that row after a source is deleted
+@Name("com.scorpion.marketdata.core.Consolidation")
+@Label("Market Data Consolidation")
+@Category({"Market Data", "Core"})
+@Description("Consolidation of a symbol's sources into its CONSOLIDATED row")
+@StackTrace(false)
+public class ConsolidationEvent extends Event {
+    @Label("Symbol")
+    public String symbol;
+
+    @Label("Source")
+    @Description("The ticking source, null for a batch that merged several, or the deleted source for a reconsolidation")
+    public String source;
+
+    @Label("Reconsolidation")
+    public boolean reconsolidation;
+
+    @Label("Row Count")
+    @Description("Source rows merged into the CONSOLIDATED row")
+    public int rowCount;
+
+    // Lets the service skip allocating the event when no recording has it enabled
+    public static boolean isTypeEnabled() {
+        return Type.EVENT_TYPE.isEnabled();
+    }
+
+    // Looked up on first use rather than while the event class itself is being initialised
+    private static final class Type {
+        private static final EventType EVENT_TYPE = EventType.getEventType(ConsolidationEvent.class);
+    }
+}
@@ -0,0 +1,34 @@
+package com.scorpion.marketdata.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// One MarketDataRepository call, recorded by RepositoryEventPostProcessor
+@Name("com.scorpion.marketdata.core.RepositoryCall")
+@Label("Market Data Repository Call")
+@Category({"Market Data", "Core", "Repository"})
+@Description("A MarketDataRepository method call")
+@StackTrace(false)
+public class RepositoryCallEvent extends Event {
+    @Label("Method")
+    public String method;
+
+    @Label("Symbol")
+    @Description("First String argument, when the method takes one")
+    public String symbol;
+
+    @Label("Source")
+    @Description("Second String argument, when the method takes one")
+    public String source;
+
+    @Label("Row Count")
+    @Description("Rows returned, passed in or updated; -1 when not known")
+    public int rowCount;
+
+    @Label("Failed")
+    public boolean failed;
+}
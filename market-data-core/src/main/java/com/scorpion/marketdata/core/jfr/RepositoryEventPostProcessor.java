@@ -0,0 +1,81 @@
+package com.scorpion.marketdata.core.jfr;
+
+import com.scorpion.marketdata.core.repository.MarketDataRepository;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+// Wraps the repository so every call emits a RepositoryCallEvent. With the event disabled a call
+// costs one isEnabled() check on top of the Spring Data proxy it already goes through.
+@Component
+public class RepositoryEventPostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof MarketDataRepository)) {
+            return bean;
+        }
+
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.addAdvice(new RepositoryCallInterceptor());
+        return proxyFactory.getProxy();
+    }
+
+    static class RepositoryCallInterceptor implements MethodInterceptor {
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            RepositoryCallEvent event = new RepositoryCallEvent();
+
+            if (!event.isEnabled()) {
+                return invocation.proceed();
+            }
+
+            event.begin();
+            Object result = null;
+
+            try {
+                result = invocation.proceed();
+                return result;
+            } catch (Throwable e) {
+                event.failed = true;
+                throw e;
+            } finally {
+                event.end();
+
+                if (event.shouldCommit()) {
+                    Object[] arguments = invocation.getArguments();
+                    event.method = invocation.getMethod().getName();
+                    event.symbol = arguments.length > 0 && arguments[0] instanceof String symbol ? symbol : null;
+                    event.source = arguments.length > 1 && arguments[1] instanceof String source ? source : null;
+                    event.rowCount = event.failed ? -1 : rowCount(result, arguments);
+                    event.commit();
+                }
+            }
+        }
+
+        // Reads count what they return, saveAll and deleteAll what they are given, bulk updates what they changed
+        private static int rowCount(Object result, Object[] arguments) {
+            if (result instanceof Collection<?> rows) {
+                return rows.size();
+            } else if (result instanceof Integer updated) {
+                return updated;
+            } else if (arguments.length == 1 && arguments[0] instanceof Collection<?> rows) {
+                return rows.size();
+            } else if (result instanceof Boolean) {
+                return -1;
+            } else if (result != null) {
+                return 1;
+            } else if (arguments.length == 1 && !(arguments[0] instanceof String)) {
+                // delete(entity)
+                return 1;
+            } else {
+                return 0;
+            }
+        }
+    }
+}
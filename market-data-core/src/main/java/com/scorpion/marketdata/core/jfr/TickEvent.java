@@ -0,0 +1,29 @@
+package com.scorpion.marketdata.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// One market-data-update request in MarketDataCoreBroker, from receive to reply
+@Name("com.scorpion.marketdata.core.Tick")
+@Label("Market Data Tick")
+@Category({"Market Data", "Core"})
+@Description("A market data update handled by core")
+@StackTrace(false)
+public class TickEvent extends Event {
+    @Label("Correlation Id")
+    public String correlationId;
+
+    @Label("Symbol")
+    public String symbol;
+
+    @Label("Source")
+    public String source;
+
+    @Label("Outcome")
+    @Description("saved, rejected, or conflated when queued for a batched write")
+    public String outcome;
+}
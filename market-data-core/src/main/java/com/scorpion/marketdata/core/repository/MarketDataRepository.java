@@ -2,17 +2,27 @@ package com.scorpion.marketdata.core.repository;
 
 import com.scorpion.marketdata.core.entity.MarketData;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface MarketDataRepository extends JpaRepository<MarketData, Long> {
-    boolean existsBySymbolAndSource(String symbol, String source);
-    boolean existsByDependsOnSymbol(String dependsOnSymbol);
     MarketData findBySymbolAndSource(String symbol, String source);
-    List<MarketData> findAllBySymbolAndSourceIsNotIn(String symbol, List<String> sources);
-    List<MarketData> findAllBySymbolAndSourceIsNotInOrderByMarketTimestampDesc(String symbol, List<String> sources);
+    List<MarketData> findAllBySymbol(String symbol);
+    List<MarketData> findAllBySource(String source);
+    List<MarketData> findAllBySymbolAndSourceIn(String symbol, Collection<String> sources);
     List<MarketData> findAllByDependsOnSymbol(String dependsOnSymbol);
-    void deleteBySymbolAndSource(String symbol, String source);
+    List<MarketData> findAllByDependsOnSymbolIn(Collection<String> dependsOnSymbols);
+    List<MarketData> findAllBySymbolIn(Collection<String> symbols);
+
+    // One statement per underlying however many dependants it has; only theoreticalPrice is written,
+    // so concurrent ticks on the dependants' other fields are never overwritten
+    @Modifying
+    @Query("UPDATE MarketData m SET m.theoreticalPrice = COALESCE(m.volatility * :lastTradedPrice, 0.0) WHERE m.dependsOnSymbol = :dependsOnSymbol")
+    int updateTheoreticalPrices(@Param("dependsOnSymbol") String dependsOnSymbol, @Param("lastTradedPrice") Double lastTradedPrice);
 }
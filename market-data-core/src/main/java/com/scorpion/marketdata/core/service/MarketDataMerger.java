@@ -0,0 +1,97 @@
+package com.scorpion.marketdata.core.service;
+
+import com.scorpion.marketdata.api.dto.MarketDataRequestBody;
+import com.scorpion.marketdata.core.entity.MarketData;
+import com.scorpion.marketdata.core.tick.MarketTick;
+import com.scorpion.marketdata.core.tick.SymbolTable;
+
+import java.time.LocalDate;
+
+// Partial update semantics shared by the write paths: a null field means "unchanged"
+public final class MarketDataMerger {
+
+    private MarketDataMerger() {
+    }
+
+    public static void apply(MarketData marketData, MarketDataRequestBody update) {
+        if (update.getLastTradedPrice() != null) {
+            marketData.setLastTradedPrice(update.getLastTradedPrice());
+        }
+
+        if (update.getBidPrice() != null) {
+            marketData.setBidPrice(update.getBidPrice());
+        }
+
+        if (update.getMidPrice() != null) {
+            marketData.setMidPrice(update.getMidPrice());
+        }
+
+        if (update.getAskPrice() != null) {
+            marketData.setAskPrice(update.getAskPrice());
+        }
+
+        if (update.getMarketTimestamp() != null) {
+            marketData.setMarketTimestamp(update.getMarketTimestamp());
+        }
+
+        if (update.getDependsOnSymbol() != null) {
+            marketData.setDependsOnSymbol(update.getDependsOnSymbol());
+        }
+
+        if (update.getLastCouponDate() != null) {
+            marketData.setLastCouponDate(update.getLastCouponDate());
+        }
+
+        if (update.getInterestRate() != null) {
+            marketData.setInterestRate(update.getInterestRate());
+        }
+
+        if (update.getVolatility() != null) {
+            marketData.setVolatility(update.getVolatility());
+        }
+    }
+
+    // Boxes a field only when its value changes, so a repeated price allocates nothing
+    public static void apply(MarketData marketData, MarketTick update, SymbolTable symbolTable) {
+        if (update.has(MarketTick.LAST_TRADED_PRICE) && changed(marketData.getLastTradedPrice(), update.getLastTradedPrice())) {
+            marketData.setLastTradedPrice(update.getLastTradedPrice());
+        }
+
+        if (update.has(MarketTick.BID_PRICE) && changed(marketData.getBidPrice(), update.getBidPrice())) {
+            marketData.setBidPrice(update.getBidPrice());
+        }
+
+        if (update.has(MarketTick.MID_PRICE) && changed(marketData.getMidPrice(), update.getMidPrice())) {
+            marketData.setMidPrice(update.getMidPrice());
+        }
+
+        if (update.has(MarketTick.ASK_PRICE) && changed(marketData.getAskPrice(), update.getAskPrice())) {
+            marketData.setAskPrice(update.getAskPrice());
+        }
+
+        if (update.has(MarketTick.MARKET_TIMESTAMP)) {
+            marketData.setMarketTimestamp(update.getMarketTimestamp());
+        }
+
+        if (update.has(MarketTick.DEPENDS_ON_SYMBOL)) {
+            marketData.setDependsOnSymbol(symbolTable.name(update.getDependsOnSymbolId()));
+        }
+
+        if (update.has(MarketTick.LAST_COUPON_DATE)
+                && (marketData.getLastCouponDate() == null || marketData.getLastCouponDate().toEpochDay() != update.getLastCouponEpochDay())) {
+            marketData.setLastCouponDate(LocalDate.ofEpochDay(update.getLastCouponEpochDay()));
+        }
+
+        if (update.has(MarketTick.INTEREST_RATE) && changed(marketData.getInterestRate(), update.getInterestRate())) {
+            marketData.setInterestRate(update.getInterestRate());
+        }
+
+        if (update.has(MarketTick.VOLATILITY) && changed(marketData.getVolatility(), update.getVolatility())) {
+            marketData.setVolatility(update.getVolatility());
+        }
+    }
+
+    private static boolean changed(Double current, double update) {
+        return current == null || Double.doubleToLongBits(current) != Double.doubleToLongBits(update);
+    }
+}
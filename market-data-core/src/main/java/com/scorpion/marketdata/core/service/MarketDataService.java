@@ -8,6 +8,7 @@ import java.util.List;
 
 public interface MarketDataService {
     TransactionStatusDto saveMarketData(MarketDataRequestBody marketData);
+    List<TransactionStatusDto> saveMarketDataBatch(List<MarketDataRequestBody> marketDataList);
     MarketDataResponseBody getMarketDataSpecific(String symbol, String source);
     MarketDataResponseBody getMarketDataConsolidated(String symbol);
     List<MarketDataResponseBody> getMarketDataBatch(List<String> symbols);
@@ -1,12 +1,17 @@
 package com.scorpion.marketdata.core.service;
 
 import com.scorpion.marketdata.api.dto.MarketDataRequestBody;
+import com.scorpion.marketdata.core.book.ConsolidatedPriceBook;
+import com.scorpion.marketdata.core.book.ConsolidatedQuote;
+import com.scorpion.marketdata.core.broker.ConsolidatedEventPublisher;
+import com.scorpion.marketdata.core.cache.MarketDataCache;
 import com.scorpion.marketdata.core.dto.MarketDataResponseBody;
 import com.scorpion.marketdata.core.dto.TransactionStatusDto;
 import com.scorpion.marketdata.core.entity.MarketData;
+import com.scorpion.marketdata.core.jfr.ConsolidationEvent;
 import com.scorpion.marketdata.core.repository.*;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
+import com.scorpion.marketdata.core.tick.MarketTick;
+import com.scorpion.marketdata.core.tick.SymbolTable;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.PlatformTransactionManager;
@@ -17,21 +22,37 @@ import org.springframework.transaction.support.DefaultTransactionDefinition;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class MarketDataServiceImpl implements MarketDataService {
     private final PlatformTransactionManager transactionManager;
     private final MarketDataRepository marketDataRepository;
-
-    public MarketDataServiceImpl(MarketDataRepository marketDataRepository, PlatformTransactionManager transactionManager) {
+    private final ConsolidatedPriceBook consolidatedPriceBook;
+    private final ConsolidatedEventPublisher consolidatedEventPublisher;
+    private final MarketDataCache marketDataCache;
+    private final TheoreticalPriceEngine theoreticalPriceEngine;
+    private final SymbolTable symbolTable;
+
+    public MarketDataServiceImpl(MarketDataRepository marketDataRepository, PlatformTransactionManager transactionManager, ConsolidatedPriceBook consolidatedPriceBook,
+                                 ConsolidatedEventPublisher consolidatedEventPublisher, MarketDataCache marketDataCache, TheoreticalPriceEngine theoreticalPriceEngine,
+                                 SymbolTable symbolTable) {
         this.marketDataRepository = marketDataRepository;
         this.transactionManager = transactionManager;
+        this.consolidatedPriceBook = consolidatedPriceBook;
+        this.consolidatedEventPublisher = consolidatedEventPublisher;
+        this.marketDataCache = marketDataCache;
+        this.theoreticalPriceEngine = theoreticalPriceEngine;
+        this.symbolTable = symbolTable;
     }
 
     @Override
-    @CachePut(value = "market_data", key = "#marketData.symbol + #marketData.source")
     public TransactionStatusDto saveMarketData(MarketDataRequestBody marketData) {
         if (marketData == null) {
             return new TransactionStatusDto(false, "Invalid market data.");
@@ -42,67 +63,148 @@ public class MarketDataServiceImpl implements MarketDataService {
         TransactionStatus status = transactionManager.getTransaction(def);
 
         try {
-            boolean marketDataExists = marketDataRepository.existsBySymbolAndSource(marketData.getSymbol(), marketData.getSource());
+            // One read for both the source and CONSOLIDATED rows; the writes are flushed on commit
+            Map<String, MarketData> rows = new HashMap<>();
 
-            if (!marketDataExists) {
-                TransactionStatusDto insertMarketDataStatus = insertMarketData(marketData);
+            for (MarketData row : marketDataRepository.findAllBySymbolAndSourceIn(marketData.getSymbol(), List.of(marketData.getSource(), "CONSOLIDATED"))) {
+                rows.put(marketDataKey(row.getSymbol(), row.getSource()), row);
+            }
 
-                if (!insertMarketDataStatus.getStatus()) {
-                    transactionManager.rollback(status);
-                    return insertMarketDataStatus;
-                }
+            // A single tick keeps the boxed values it was decoded with; converting it to a MarketTick
+            // would only box them again on the way into the entity
+            MarketData sourceRow = applyToRow(rows, marketData, marketData.getSource());
+            MarketData consolidatedRow = applyToRow(rows, marketData, "CONSOLIDATED");
 
-                boolean consolidatedMarketDataExists = marketDataRepository.existsBySymbolAndSource(marketData.getSymbol(), "CONSOLIDATED");
+            marketDataRepository.save(sourceRow);
+            marketDataRepository.save(consolidatedRow);
 
-                if (!consolidatedMarketDataExists) {
-                    TransactionStatusDto insertConsolidatedMarketDataStatus = insertConsolidatedMarketData(marketData);
+            // Commit transaction if all operations succeed
+            transactionManager.commit(status);
+            putConsolidated(consolidatedRow);
+            marketDataCache.put(toResponseBody(sourceRow));
+            marketDataCache.put(toResponseBody(consolidatedRow));
 
-                    if (!insertConsolidatedMarketDataStatus.getStatus()) {
-                        transactionManager.rollback(status);
-                        return insertConsolidatedMarketDataStatus;
-                    }
+            if (marketData.getLastTradedPrice() != null) {
+                theoreticalPriceEngine.underlyingChanged(marketData.getSymbol());
+            }
 
-                } else {
-                    TransactionStatusDto updateConsolidatedMarketDataStatus = updateConsolidatedMarketData(marketData);
+            return new TransactionStatusDto(true, "Market data saved successfully.");
 
-                    if (!updateConsolidatedMarketDataStatus.getStatus()) {
-                        transactionManager.rollback(status);
-                        return updateConsolidatedMarketDataStatus;
-                    }
-                }
+        } catch (Exception e) {
+            if (!status.isCompleted()) {
+                transactionManager.rollback(status);
+            }
+            return new TransactionStatusDto(false, "Error saving market data.");
+        }
+    }
 
-            } else {
-                TransactionStatusDto updateMarketDataStatus = updateMarketData(marketData);
+    @Override
+    public List<TransactionStatusDto> saveMarketDataBatch(List<MarketDataRequestBody> marketDataList) {
+        if (marketDataList == null) {
+            return null;
+        }
 
-                if (!updateMarketDataStatus.getStatus()) {
-                    transactionManager.rollback(status);
-                    return updateMarketDataStatus;
+        // Each source row coalesces the ticks of its own source. The CONSOLIDATED row takes every tick of
+        // the symbol in arrival order, so with interleaved sources the latest tick wins, as it does when
+        // the ticks are saved one by one. Later non-null fields win in both.
+        Map<Long, MarketTick> sourceTicks = new LinkedHashMap<>();
+        Map<Long, MarketTick> consolidatedTicks = new LinkedHashMap<>();
+        int consolidatedId = symbolTable.id("CONSOLIDATED");
+
+        for (MarketDataRequestBody marketData : marketDataList) {
+            if (marketData != null) {
+                int symbolId = symbolTable.id(marketData.getSymbol());
+                int sourceId = symbolTable.id(marketData.getSource());
+
+                // A tick sent as CONSOLIDATED is already covered by the symbol's CONSOLIDATED tick
+                if (sourceId != consolidatedId) {
+                    sourceTicks.computeIfAbsent(MarketTick.key(symbolId, sourceId), key -> new MarketTick(symbolId, sourceId))
+                            .merge(marketData, symbolTable);
                 }
 
-                boolean consolidatedMarketDataExists = marketDataRepository.existsBySymbolAndSource(marketData.getSymbol(), "CONSOLIDATED");
+                consolidatedTicks.computeIfAbsent(MarketTick.key(symbolId, consolidatedId), key -> new MarketTick(symbolId, consolidatedId))
+                        .merge(marketData, symbolTable);
+            }
+        }
+
+        DefaultTransactionDefinition def = new DefaultTransactionDefinition();
+        def.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRED);
+        TransactionStatus status = transactionManager.getTransaction(def);
 
-                if (!consolidatedMarketDataExists) {
-                    TransactionStatusDto updateConsolidatedMarketDataStatus = updateConsolidatedMarketData(marketData);
+        try {
+            Set<String> symbols = new HashSet<>();
 
-                    if (!updateConsolidatedMarketDataStatus.getStatus()) {
-                        transactionManager.rollback(status);
-                        return updateConsolidatedMarketDataStatus;
-                    }
-                }
+            for (MarketTick tick : consolidatedTicks.values()) {
+                symbols.add(symbolTable.name(tick.getSymbolId()));
             }
 
-            // Commit transaction if all operations succeed
+            // One read for every row the batch touches
+            Map<String, MarketData> rows = new HashMap<>();
+
+            for (MarketData row : marketDataRepository.findAllBySymbolIn(symbols)) {
+                rows.put(marketDataKey(row.getSymbol(), row.getSource()), row);
+            }
+
+            Map<String, MarketData> changedRows = new LinkedHashMap<>();
+
+            // CONSOLIDATED rows first, so dependants in the same batch are priced from their new underlying
+            for (MarketTick tick : consolidatedTicks.values()) {
+                MarketData row = applyToRow(rows, tick, null);
+                changedRows.put(marketDataKey(row.getSymbol(), row.getSource()), row);
+            }
+
+            for (MarketTick tick : sourceTicks.values()) {
+                MarketData row = applyToRow(rows, tick, symbolTable.name(tick.getSourceId()));
+                changedRows.put(marketDataKey(row.getSymbol(), row.getSource()), row);
+            }
+
+            // Written with JDBC batching (hibernate.jdbc.batch_size) in a single transaction
+            marketDataRepository.saveAll(changedRows.values());
+
             transactionManager.commit(status);
-            return new TransactionStatusDto(true, "Market data saved successfully.");
+
+            for (MarketData row : changedRows.values()) {
+                if ("CONSOLIDATED".equals(row.getSource())) {
+                    putConsolidated(row);
+                }
+
+                marketDataCache.put(toResponseBody(row));
+            }
+
+            for (MarketTick tick : consolidatedTicks.values()) {
+                if (tick.has(MarketTick.LAST_TRADED_PRICE)) {
+                    theoreticalPriceEngine.underlyingChanged(symbolTable.name(tick.getSymbolId()));
+                }
+            }
 
         } catch (Exception e) {
-            transactionManager.rollback(status);
-            return new TransactionStatusDto(false, "Error saving market data.");
+            if (!status.isCompleted()) {
+                transactionManager.rollback(status);
+            }
+
+            // Fall back to one transaction per tick so a bad tick only fails its own request
+            List<TransactionStatusDto> statuses = new ArrayList<>(marketDataList.size());
+
+            for (MarketDataRequestBody marketData : marketDataList) {
+                statuses.add(saveMarketData(marketData));
+            }
+
+            return statuses;
         }
+
+        List<TransactionStatusDto> statuses = new ArrayList<>(marketDataList.size());
+
+        for (MarketDataRequestBody marketData : marketDataList) {
+            statuses.add(marketData != null
+                    ? new TransactionStatusDto(true, "Market data saved successfully.")
+                    : new TransactionStatusDto(false, "Invalid market data."));
+        }
+
+        return statuses;
     }
 
     @Override
-    @Cacheable(value = "market_data", key = "#symbol + #source")
+    @Cacheable(value = MarketDataCache.CACHE_NAME, key = "#symbol + ':' + #source", unless = "#result == null")
     public MarketDataResponseBody getMarketDataSpecific(String symbol, String source) {
         if (symbol == null  || source == null) {
             return null;
@@ -114,55 +216,25 @@ public class MarketDataServiceImpl implements MarketDataService {
             return null;
         }
 
-        return new MarketDataResponseBody(
-                entity.getSymbol(),
-                entity.getLastTradedPrice(),
-                entity.getBidPrice(),
-                entity.getMidPrice(),
-                entity.getAskPrice(),
-                entity.getMarketTimestamp(),
-                entity.getDependsOnSymbol(),
-                entity.getSource(),
-                entity.getLastCouponDate().toString(),
-                entity.getInterestRate(),
-                entity.getVolatility(),
-                entity.getAccruedInterest(),
-                entity.getTheoreticalPrice()
-        );
+        return toResponseBody(entity);
     }
 
     @Override
-    @Cacheable(value = "market_data", key = "#symbol + 'CONSOLIDATED'")
     public MarketDataResponseBody getMarketDataConsolidated(String symbol) {
         if (symbol == null) {
             return null;
         }
 
-        MarketData entity = marketDataRepository.findBySymbolAndSource(symbol, "CONSOLIDATED");
+        ConsolidatedQuote quote = consolidatedPriceBook.get(symbol);
 
-        if (entity == null) {
+        if (quote == null) {
             return null;
         }
 
-        return new MarketDataResponseBody(
-                entity.getSymbol(),
-                entity.getLastTradedPrice(),
-                entity.getBidPrice(),
-                entity.getMidPrice(),
-                entity.getAskPrice(),
-                entity.getMarketTimestamp(),
-                entity.getDependsOnSymbol(),
-                entity.getSource(),
-                entity.getLastCouponDate().toString(),
-                entity.getInterestRate(),
-                entity.getVolatility(),
-                entity.getAccruedInterest(),
-                entity.getTheoreticalPrice()
-        );
+        return quote.toResponseBody();
     }
 
     @Override
-    @Cacheable(value = "market_data", key = "#symbols")
     public List<MarketDataResponseBody> getMarketDataBatch(List<String> symbols) {
         if (symbols == null) {
             return null;
@@ -171,40 +243,14 @@ public class MarketDataServiceImpl implements MarketDataService {
         List<MarketDataResponseBody> marketDataList = new ArrayList<>();
 
         for (String symbol : symbols) {
-            if (symbol == null) {
-                marketDataList.add(null);
-                continue;
-            }
-
-            MarketData entity = marketDataRepository.findBySymbolAndSource(symbol, "CONSOLIDATED");
-
-            if (entity == null) {
-                marketDataList.add(null);
-                continue;
-            }
-
-            marketDataList.add(new MarketDataResponseBody(
-                    entity.getSymbol(),
-                    entity.getLastTradedPrice(),
-                    entity.getBidPrice(),
-                    entity.getMidPrice(),
-                    entity.getAskPrice(),
-                    entity.getMarketTimestamp(),
-                    entity.getDependsOnSymbol(),
-                    entity.getSource(),
-                    entity.getLastCouponDate().toString(),
-                    entity.getInterestRate(),
-                    entity.getVolatility(),
-                    entity.getAccruedInterest(),
-                    entity.getTheoreticalPrice()
-            ));
+            ConsolidatedQuote quote = consolidatedPriceBook.get(symbol);
+            marketDataList.add(quote != null ? quote.toResponseBody() : null);
         }
 
         return marketDataList;
     }
 
     @Override
-    @CacheEvict(value = "market_data", key = "#symbol + #source")
     public TransactionStatusDto deleteMarketData(String symbol, String source) {
         if (symbol == null || source == null) {
             return new TransactionStatusDto(false, "Invalid symbol or source.");
@@ -215,334 +261,268 @@ public class MarketDataServiceImpl implements MarketDataService {
         TransactionStatus status = transactionManager.getTransaction(def);
 
         try {
+            // Load every row of the symbol once and decide the rest in memory
+            MarketData marketData = null;
+            MarketData consolidatedMarketData = null;
+            List<MarketData> otherMarketData = new ArrayList<>();
+
+            for (MarketData row : marketDataRepository.findAllBySymbol(symbol)) {
+                if (source.equals(row.getSource())) {
+                    marketData = row;
+                } else if ("CONSOLIDATED".equals(row.getSource())) {
+                    consolidatedMarketData = row;
+                } else {
+                    otherMarketData.add(row);
+                }
+            }
+
             // Check if market data exists
-            if (!marketDataRepository.existsBySymbolAndSource(symbol, source)) {
+            if (marketData == null) {
                 transactionManager.rollback(status);
                 return new TransactionStatusDto(false, "Market data does not exist.");
             }
 
             // Delete market data
-            TransactionStatusDto deleteMarketDataStatus = deleteMarketDataRecord(symbol, source);
+            marketDataRepository.delete(marketData);
 
-            if (!deleteMarketDataStatus.getStatus()) {
-                transactionManager.rollback(status);
-                return deleteMarketDataStatus;
-            }
+            // Rows changed by this delete, applied to the book and cache once committed
+            List<MarketData> changedMarketDataList = new ArrayList<>();
+            boolean consolidatedMarketDataDeleted = "CONSOLIDATED".equals(source);
+
+            if (otherMarketData.isEmpty()) {
+                // Delete "CONSOLIDATED" market data and detach its dependants
+                if (consolidatedMarketData != null) {
+                    marketDataRepository.delete(consolidatedMarketData);
+                    consolidatedMarketDataDeleted = true;
 
-            // Check if no other market data exists except "CONSOLIDATED"
-            boolean noMarketDataExists = marketDataRepository
-                    .findAllBySymbolAndSourceIsNotIn(symbol, Collections.singletonList("CONSOLIDATED"))
-                    .isEmpty();
-
-            if (noMarketDataExists) {
-                // Check if "CONSOLIDATED" market data exists
-                if (marketDataRepository.existsBySymbolAndSource(symbol, "CONSOLIDATED")) {
-                    // Delete "CONSOLIDATED" market data
-                    TransactionStatusDto deleteConsolidatedMarketDataStatus = deleteConsolidatedMarketData(symbol);
-
-                    if (!deleteConsolidatedMarketDataStatus.getStatus()) {
-                        transactionManager.rollback(status);
-                        return deleteConsolidatedMarketDataStatus;
-                    }
-
-                    // Check if dependent market data exists
-                    if (marketDataRepository.existsByDependsOnSymbol(symbol)) {
-                        TransactionStatusDto updateDependantMarketDataStatus = updateDependantMarketData(symbol);
-
-                        if (!updateDependantMarketDataStatus.getStatus()) {
-                            transactionManager.rollback(status);
-                            return updateDependantMarketDataStatus;
-                        }
-                    }
+                    changedMarketDataList.addAll(updateDependantMarketData(symbol));
                 }
             } else {
                 // Re-consolidate market data if other market data exists
-                TransactionStatusDto reConsolidateMarketDataStatus = reConsolidateMarketData(symbol);
+                TransactionStatusDto reConsolidateMarketDataStatus = reConsolidateMarketData(consolidatedMarketData, otherMarketData, source);
 
                 if (!reConsolidateMarketDataStatus.getStatus()) {
                     transactionManager.rollback(status);
                     return reConsolidateMarketDataStatus;
                 }
+
+                changedMarketDataList.add(consolidatedMarketData);
             }
 
             // Commit transaction if all operations succeed
             transactionManager.commit(status);
-            return new TransactionStatusDto(true, "Market data deleted successfully.");
 
-        } catch (Exception e) {
-            transactionManager.rollback(status);
-            return new TransactionStatusDto(false, "Error deleting market data.");
-        }
-    }
+            marketDataCache.evict(symbol, source);
 
-    private TransactionStatusDto insertMarketData(MarketDataRequestBody marketData) {
-        double accruedInterest = calculateAccruedInterest(marketData.getLastTradedPrice(), marketData.getInterestRate(), marketData.getLastCouponDate());
-        double theoreticalPrice = calculateTheoreticalPrice(marketData.getDependsOnSymbol(), marketData.getVolatility());
+            if (consolidatedMarketDataDeleted) {
+                if (consolidatedPriceBook.remove(symbol)) {
+                    consolidatedEventPublisher.publish(symbol, null);
+                }
 
-        marketDataRepository.save(new MarketData(
-                marketData.getSymbol(),
-                marketData.getLastTradedPrice(),
-                marketData.getBidPrice(),
-                marketData.getMidPrice(),
-                marketData.getAskPrice(),
-                marketData.getMarketTimestamp(),
-                marketData.getDependsOnSymbol(),
-                marketData.getSource(),
-                marketData.getLastCouponDate(),
-                marketData.getInterestRate(),
-                marketData.getVolatility(),
-                accruedInterest,
-                theoreticalPrice
-        ));
+                marketDataCache.evict(symbol, "CONSOLIDATED");
+            } else {
+                // Re-consolidation may have moved the last traded price
+                theoreticalPriceEngine.underlyingChanged(symbol);
+            }
 
-        MarketData savedMarketData = marketDataRepository.findBySymbolAndSource(marketData.getSymbol(), marketData.getSource());
+            for (MarketData changedMarketData : changedMarketDataList) {
+                if ("CONSOLIDATED".equals(changedMarketData.getSource())) {
+                    putConsolidated(changedMarketData);
+                }
 
-        boolean isMarketDataInserted = savedMarketData != null;
-        return new TransactionStatusDto(isMarketDataInserted, isMarketDataInserted ? "Market data inserted successfully." : "Failed to insert market data.");
-    }
+                marketDataCache.put(toResponseBody(changedMarketData));
+            }
 
-    private TransactionStatusDto updateMarketData(MarketDataRequestBody marketData) {
-        MarketData existingMarketData = marketDataRepository.findBySymbolAndSource(marketData.getSymbol(), marketData.getSource());
+            return new TransactionStatusDto(true, "Market data deleted successfully.");
 
-        if (marketData.getLastTradedPrice() != null) {
-            existingMarketData.setLastTradedPrice(marketData.getLastTradedPrice());
+        } catch (Exception e) {
+            if (!status.isCompleted()) {
+                transactionManager.rollback(status);
+            }
+            return new TransactionStatusDto(false, "Error deleting market data.");
         }
+    }
 
-        if (marketData.getBidPrice() != null) {
-            existingMarketData.setBidPrice(marketData.getBidPrice());
-        }
+    private List<MarketData> updateDependantMarketData(String symbol) {
+        List<MarketData> dependantMarketDataList = marketDataRepository.findAllByDependsOnSymbol(symbol);
 
-        if (marketData.getMidPrice() != null) {
-            existingMarketData.setMidPrice(marketData.getMidPrice());
+        for (MarketData dependantMarketData : dependantMarketDataList) {
+            // Without an underlying there is no theoretical price
+            dependantMarketData.setDependsOnSymbol(null);
+            dependantMarketData.setTheoreticalPrice(0.0);
         }
 
-        if (marketData.getAskPrice() != null) {
-            existingMarketData.setAskPrice(marketData.getAskPrice());
-        }
+        marketDataRepository.saveAll(dependantMarketDataList);
+        return dependantMarketDataList;
+    }
 
-        if (marketData.getMarketTimestamp() != null) {
-            existingMarketData.setMarketTimestamp(marketData.getMarketTimestamp());
+    private TransactionStatusDto reConsolidateMarketData(MarketData consolidatedMarketData, List<MarketData> marketDataList, String deletedSource) {
+        if (consolidatedMarketData == null) {
+            return new TransactionStatusDto(false, "No consolidated market data found.");
         }
 
-        if (marketData.getDependsOnSymbol() != null) {
-            existingMarketData.setDependsOnSymbol(marketData.getDependsOnSymbol());
-        }
+        ConsolidationEvent event = ConsolidationEvent.isTypeEnabled() ? new ConsolidationEvent() : null;
 
-        if (marketData.getLastCouponDate() != null) {
-            existingMarketData.setLastCouponDate(marketData.getLastCouponDate());
+        if (event != null) {
+            event.begin();
         }
 
-        if (marketData.getInterestRate() != null) {
-            existingMarketData.setInterestRate(marketData.getInterestRate());
-        }
+        // Same order as ORDER BY market_timestamp DESC in PostgreSQL, which puts nulls first
+        marketDataList.sort(Comparator.comparing(MarketData::getMarketTimestamp, Comparator.nullsFirst(Comparator.<String>reverseOrder())));
 
-        if (marketData.getVolatility() != null) {
-            existingMarketData.setVolatility(marketData.getVolatility());
+        for (MarketData marketData : marketDataList) {
+            consolidatedMarketData.setLastTradedPrice(marketData.getLastTradedPrice());
+            consolidatedMarketData.setBidPrice(marketData.getBidPrice());
+            consolidatedMarketData.setMidPrice(marketData.getMidPrice());
+            consolidatedMarketData.setAskPrice(marketData.getAskPrice());
+            consolidatedMarketData.setMarketTimestamp(marketData.getMarketTimestamp());
+            consolidatedMarketData.setDependsOnSymbol(marketData.getDependsOnSymbol());
+            consolidatedMarketData.setLastCouponDate(marketData.getLastCouponDate());
+            consolidatedMarketData.setInterestRate(marketData.getInterestRate());
+            consolidatedMarketData.setVolatility(marketData.getVolatility());
+            consolidatedMarketData.setAccruedInterest(marketData.getAccruedInterest());
+            consolidatedMarketData.setTheoreticalPrice(marketData.getTheoreticalPrice());
+
+            if (consolidatedMarketData.getLastTradedPrice() != null &&
+                    consolidatedMarketData.getBidPrice() != null &&
+                    consolidatedMarketData.getMidPrice() != null &&
+                    consolidatedMarketData.getAskPrice() != null &&
+                    consolidatedMarketData.getMarketTimestamp() != null &&
+                    consolidatedMarketData.getDependsOnSymbol() != null &&
+                    consolidatedMarketData.getLastCouponDate() != null &&
+                    consolidatedMarketData.getInterestRate() != null &&
+                    consolidatedMarketData.getVolatility() != null &&
+                    consolidatedMarketData.getAccruedInterest() != null &&
+                    consolidatedMarketData.getTheoreticalPrice() != null) {
+                break;
+            }
         }
 
-        double accruedInterest = calculateAccruedInterest(existingMarketData.getLastTradedPrice(), existingMarketData.getInterestRate(), existingMarketData.getLastCouponDate());
-        double theoreticalPrice = calculateTheoreticalPrice(existingMarketData.getDependsOnSymbol(), existingMarketData.getVolatility());
-
-        existingMarketData.setAccruedInterest(accruedInterest);
-        existingMarketData.setTheoreticalPrice(theoreticalPrice);
+        if (event != null) {
+            event.end();
 
-        marketDataRepository.save(existingMarketData);
+            if (event.shouldCommit()) {
+                event.symbol = consolidatedMarketData.getSymbol();
+                event.source = deletedSource;
+                event.reconsolidation = true;
+                event.rowCount = marketDataList.size();
+                event.commit();
+            }
+        }
 
-        MarketData savedMarketData = marketDataRepository.findBySymbolAndSource(marketData.getSymbol(), marketData.getSource());
+        marketDataRepository.save(consolidatedMarketData);
 
-        boolean isMarketDataUpdated = savedMarketData != null;
-        return new TransactionStatusDto(isMarketDataUpdated, isMarketDataUpdated ? "Market data updated successfully." : "Failed to update market data.");
+        return new TransactionStatusDto(true, "Market data re-consolidated successfully.");
     }
 
-    private TransactionStatusDto insertConsolidatedMarketData(MarketDataRequestBody marketData) {
-        marketDataRepository.save(new MarketData(
-                marketData.getSymbol(),
-                marketData.getLastTradedPrice(),
-                marketData.getBidPrice(),
-                marketData.getMidPrice(),
-                marketData.getAskPrice(),
-                marketData.getMarketTimestamp(),
-                marketData.getDependsOnSymbol(),
-                "CONSOLIDATED",
-                marketData.getLastCouponDate(),
-                marketData.getInterestRate(),
-                marketData.getVolatility(),
-                calculateAccruedInterest(marketData.getLastTradedPrice(), marketData.getInterestRate(), marketData.getLastCouponDate()),
-                calculateTheoreticalPrice(marketData.getDependsOnSymbol(), marketData.getVolatility())
-        ));
+    private MarketData applyToRow(Map<String, MarketData> rows, MarketDataRequestBody marketData, String source) {
+        ConsolidationEvent event = consolidationEvent(source);
 
-        MarketData savedConsolidatedMarketData = marketDataRepository.findBySymbolAndSource(marketData.getSymbol(), "CONSOLIDATED");
+        MarketData row = row(rows, marketData.getSymbol(), source);
+        MarketDataMerger.apply(row, marketData);
 
-        boolean isMarketDataInserted = savedConsolidatedMarketData != null;
-        return new TransactionStatusDto(isMarketDataInserted, isMarketDataInserted ? "Consolidated market data inserted successfully." : "Failed to insert consolidated market data.");
+        return priced(rows, row, event, marketData.getSource());
     }
 
-    private TransactionStatusDto updateConsolidatedMarketData(MarketDataRequestBody marketData) {
-        MarketData existingConsolidatedMarketData = marketDataRepository.findBySymbolAndSource(marketData.getSymbol(), "CONSOLIDATED");
-
-        if (marketData.getLastTradedPrice() != null) {
-            existingConsolidatedMarketData.setLastTradedPrice(marketData.getLastTradedPrice());
-        }
-
-        if (marketData.getBidPrice() != null) {
-            existingConsolidatedMarketData.setBidPrice(marketData.getBidPrice());
-        }
-
-        if (marketData.getMidPrice() != null) {
-            existingConsolidatedMarketData.setMidPrice(marketData.getMidPrice());
-        }
-
-        if (marketData.getAskPrice() != null) {
-            existingConsolidatedMarketData.setAskPrice(marketData.getAskPrice());
-        }
-
-        if (marketData.getMarketTimestamp() != null) {
-            existingConsolidatedMarketData.setMarketTimestamp(marketData.getMarketTimestamp());
-        }
+    // The tick's own source names the row; tickSource is null for a CONSOLIDATED tick merged from several sources
+    private MarketData applyToRow(Map<String, MarketData> rows, MarketTick tick, String tickSource) {
+        String source = symbolTable.name(tick.getSourceId());
+        ConsolidationEvent event = consolidationEvent(source);
 
-        if (marketData.getDependsOnSymbol() != null) {
-            existingConsolidatedMarketData.setDependsOnSymbol(marketData.getDependsOnSymbol());
-        }
-
-        if (marketData.getLastCouponDate() != null) {
-            existingConsolidatedMarketData.setLastCouponDate(marketData.getLastCouponDate());
-        }
+        MarketData row = row(rows, symbolTable.name(tick.getSymbolId()), source);
+        MarketDataMerger.apply(row, tick, symbolTable);
 
-        if (marketData.getInterestRate() != null) {
-            existingConsolidatedMarketData.setInterestRate(marketData.getInterestRate());
-        }
+        return priced(rows, row, event, tickSource);
+    }
 
-        if (marketData.getVolatility() != null) {
-            existingConsolidatedMarketData.setVolatility(marketData.getVolatility());
+    // Only merges into the CONSOLIDATED row are recorded, so per-source rows never allocate an event
+    private static ConsolidationEvent consolidationEvent(String rowSource) {
+        if (!"CONSOLIDATED".equals(rowSource) || !ConsolidationEvent.isTypeEnabled()) {
+            return null;
         }
 
-        double accruedInterest = calculateAccruedInterest(existingConsolidatedMarketData.getLastTradedPrice(), existingConsolidatedMarketData.getInterestRate(), existingConsolidatedMarketData.getLastCouponDate());
-        double theoreticalPrice = calculateTheoreticalPrice(existingConsolidatedMarketData.getDependsOnSymbol(), existingConsolidatedMarketData.getVolatility());
-
-        existingConsolidatedMarketData.setAccruedInterest(accruedInterest);
-        existingConsolidatedMarketData.setTheoreticalPrice(theoreticalPrice);
-
-        marketDataRepository.save(existingConsolidatedMarketData);
-
-        MarketData savedConsolidatedMarketData = marketDataRepository.findBySymbolAndSource(marketData.getSymbol(), "CONSOLIDATED");
-
-        boolean isMarketDataUpdated = savedConsolidatedMarketData != null;
-        return new TransactionStatusDto(isMarketDataUpdated, isMarketDataUpdated ? "Consolidated market data updated successfully." : "Failed to update consolidated market data.");
+        ConsolidationEvent event = new ConsolidationEvent();
+        event.begin();
+        return event;
     }
 
-    private TransactionStatusDto updateDependantMarketData(String symbol) {
-        boolean dependantMarketDataExists = marketDataRepository.existsByDependsOnSymbol(symbol);
+    private MarketData row(Map<String, MarketData> rows, String symbol, String source) {
+        String key = marketDataKey(symbol, source);
+        MarketData row = rows.get(key);
 
-        if (!dependantMarketDataExists) {
-            return new TransactionStatusDto(false, "No dependant market data found.");
+        if (row == null) {
+            row = new MarketData();
+            row.setSymbol(symbol);
+            row.setSource(source);
+            rows.put(key, row);
         }
 
-        List<MarketData> dependantMarketDataList = marketDataRepository.findAllByDependsOnSymbol(symbol);
-
-        if (dependantMarketDataList == null || dependantMarketDataList.isEmpty()) {
-            return new TransactionStatusDto(false, "No dependant market data found.");
-        }
-
-        for (MarketData dependantMarketData : dependantMarketDataList) {
-            dependantMarketData.setDependsOnSymbol(null);
-
-            double theoreticalPrice = calculateTheoreticalPrice(dependantMarketData.getDependsOnSymbol(), dependantMarketData.getVolatility());
-
-            dependantMarketData.setTheoreticalPrice(theoreticalPrice);
+        return row;
+    }
 
-            marketDataRepository.save(dependantMarketData);
+    // Derived prices follow the merged fields; a merge into the CONSOLIDATED row is a consolidation
+    private MarketData priced(Map<String, MarketData> rows, MarketData row, ConsolidationEvent event, String tickSource) {
+        row.setAccruedInterest(calculateAccruedInterest(row.getLastTradedPrice(), row.getInterestRate(), row.getLastCouponDate()));
+        row.setTheoreticalPrice(TheoreticalPriceEngine.theoreticalPrice(underlyingLastTradedPrice(rows, row.getDependsOnSymbol()), row.getVolatility()));
 
-            MarketData savedDependantMarketData = marketDataRepository.findBySymbolAndSource(dependantMarketData.getSymbol(), dependantMarketData.getSource());
+        if (event != null) {
+            event.end();
 
-            if (savedDependantMarketData.getDependsOnSymbol() != null) {
-                return new TransactionStatusDto(false, "Failed to update dependant market data.");
+            if (event.shouldCommit()) {
+                event.symbol = row.getSymbol();
+                event.source = tickSource;
+                event.rowCount = 1;
+                event.commit();
             }
         }
 
-        return new TransactionStatusDto(true, "Dependant market data updated successfully.");
+        return row;
     }
 
-    private TransactionStatusDto deleteMarketDataRecord(String symbol, String source) {
-        boolean marketDataExists = marketDataRepository.existsBySymbolAndSource(symbol, source);
-
-        if (!marketDataExists) {
-            return new TransactionStatusDto(false, "No market data found.");
-        }
-
-        marketDataRepository.deleteBySymbolAndSource(symbol, source);
-
-        boolean isMarketDataDeleted = !marketDataRepository.existsBySymbolAndSource(symbol, source);
-        return new TransactionStatusDto(isMarketDataDeleted, isMarketDataDeleted ? "Market data deleted successfully." : "Failed to delete market data.");
-    }
-
-    private TransactionStatusDto deleteConsolidatedMarketData(String symbol) {
-        boolean consolidatedMarketDataExists = marketDataRepository.existsBySymbolAndSource(symbol, "CONSOLIDATED");
-
-        if (!consolidatedMarketDataExists) {
-            return new TransactionStatusDto(false, "No consolidated market data found.");
-        }
-
-        marketDataRepository.deleteBySymbolAndSource(symbol, "CONSOLIDATED");
-
-        boolean isConsolidatedMarketDataDeleted = !marketDataRepository.existsBySymbolAndSource(symbol, "CONSOLIDATED");
-        return new TransactionStatusDto(isConsolidatedMarketDataDeleted, isConsolidatedMarketDataDeleted ? "Consolidated market data deleted successfully." : "Failed to delete consolidated market data.");
+    private static MarketDataResponseBody toResponseBody(MarketData marketData) {
+        return new MarketDataResponseBody(
+                marketData.getSymbol(),
+                marketData.getLastTradedPrice(),
+                marketData.getBidPrice(),
+                marketData.getMidPrice(),
+                marketData.getAskPrice(),
+                marketData.getMarketTimestamp(),
+                marketData.getDependsOnSymbol(),
+                marketData.getSource(),
+                marketData.getLastCouponDate() != null ? marketData.getLastCouponDate().toString() : null,
+                marketData.getInterestRate(),
+                marketData.getVolatility(),
+                marketData.getAccruedInterest(),
+                marketData.getTheoreticalPrice()
+        );
     }
 
-    private TransactionStatusDto reConsolidateMarketData(String symbol) {
-        List<MarketData> marketDataList = marketDataRepository.findAllBySymbolAndSourceIsNotInOrderByMarketTimestampDesc(symbol, Collections.singletonList("CONSOLIDATED"));
-
-        if (marketDataList == null || marketDataList.isEmpty()) {
-            return new TransactionStatusDto(false, "No market data found.");
-        }
-
-        MarketData existingConsolidatedMarketData = marketDataRepository.findBySymbolAndSource(symbol, "CONSOLIDATED");
-
-        if (existingConsolidatedMarketData == null) {
-            return new TransactionStatusDto(false, "No consolidated market data found.");
+    // Prefers the underlying's row when this unit of work is changing it, otherwise reads the book
+    private double underlyingLastTradedPrice(Map<String, MarketData> rows, String dependsOnSymbol) {
+        if (dependsOnSymbol == null) {
+            return Double.NaN;
         }
 
-        MarketData newConsolidatedMarketData = new MarketData();
-        newConsolidatedMarketData.setId(existingConsolidatedMarketData.getId());
-        newConsolidatedMarketData.setSymbol(symbol);
-        newConsolidatedMarketData.setSource("CONSOLIDATED");
+        MarketData dependsOn = rows.get(marketDataKey(dependsOnSymbol, "CONSOLIDATED"));
 
-        for (MarketData marketData : marketDataList) {
-            newConsolidatedMarketData.setLastTradedPrice(marketData.getLastTradedPrice());
-            newConsolidatedMarketData.setBidPrice(marketData.getBidPrice());
-            newConsolidatedMarketData.setMidPrice(marketData.getMidPrice());
-            newConsolidatedMarketData.setAskPrice(marketData.getAskPrice());
-            newConsolidatedMarketData.setMarketTimestamp(marketData.getMarketTimestamp());
-            newConsolidatedMarketData.setDependsOnSymbol(marketData.getDependsOnSymbol());
-            newConsolidatedMarketData.setLastCouponDate(marketData.getLastCouponDate());
-            newConsolidatedMarketData.setInterestRate(marketData.getInterestRate());
-            newConsolidatedMarketData.setVolatility(marketData.getVolatility());
-            newConsolidatedMarketData.setAccruedInterest(marketData.getAccruedInterest());
-            newConsolidatedMarketData.setTheoreticalPrice(marketData.getTheoreticalPrice());
-
-            if (newConsolidatedMarketData.getLastTradedPrice() != null &&
-                    newConsolidatedMarketData.getBidPrice() != null &&
-                    newConsolidatedMarketData.getMidPrice() != null &&
-                    newConsolidatedMarketData.getAskPrice() != null &&
-                    newConsolidatedMarketData.getMarketTimestamp() != null &&
-                    newConsolidatedMarketData.getDependsOnSymbol() != null &&
-                    newConsolidatedMarketData.getLastCouponDate() != null &&
-                    newConsolidatedMarketData.getInterestRate() != null &&
-                    newConsolidatedMarketData.getVolatility() != null &&
-                    newConsolidatedMarketData.getAccruedInterest() != null &&
-                    newConsolidatedMarketData.getTheoreticalPrice() != null) {
-                break;
-            }
+        if (dependsOn != null) {
+            return dependsOn.getLastTradedPrice() != null ? dependsOn.getLastTradedPrice() : Double.NaN;
         }
 
-        marketDataRepository.save(newConsolidatedMarketData);
+        return consolidatedPriceBook.getLastTradedPrice(dependsOnSymbol);
+    }
 
-        MarketData savedConsolidatedMarketData = marketDataRepository.findBySymbolAndSource(symbol, "CONSOLIDATED");
-        boolean isMarketDataReConsolidated = savedConsolidatedMarketData != null;
+    // Called after commit only, so subscribers and the other nodes never see a rolled-back change
+    private void putConsolidated(MarketData consolidatedRow) {
+        consolidatedPriceBook.put(consolidatedRow);
+        consolidatedEventPublisher.publish(consolidatedRow.getSymbol(), toResponseBody(consolidatedRow));
+    }
 
-        return new TransactionStatusDto(isMarketDataReConsolidated, isMarketDataReConsolidated ? "Market data re-consolidated successfully." : "Failed to re-consolidate market data.");
+    private String marketDataKey(String symbol, String source) {
+        return symbol + ":" + source;
     }
 
-    private double calculateAccruedInterest(Double lastTradedPrice, Double interestRate, LocalDate lastCouponDate) {
+    private static double calculateAccruedInterest(Double lastTradedPrice, Double interestRate, LocalDate lastCouponDate) {
         LocalDate currentDate = LocalDate.now();
 
         double accruedInterest = 0.0;
@@ -554,17 +534,4 @@ public class MarketDataServiceImpl implements MarketDataService {
 
         return accruedInterest;
     }
-
-    private double calculateTheoreticalPrice(String dependsOnSymbol, Double volatility) {
-        double theoreticalPrice = 0.0;
-
-        if (dependsOnSymbol != null) {
-            MarketData dependsOn = marketDataRepository.findBySymbolAndSource(dependsOnSymbol, "CONSOLIDATED");
-            if (dependsOn != null && dependsOn.getLastTradedPrice() != null && volatility != null) {
-                theoreticalPrice = dependsOn.getLastTradedPrice() * volatility;
-            }
-        }
-
-        return theoreticalPrice;
-    }
 }
@@ -0,0 +1,131 @@
+package com.scorpion.marketdata.core.service;
+
+import com.scorpion.marketdata.core.book.ConsolidatedPriceBook;
+import com.scorpion.marketdata.core.book.ConsolidatedQuote;
+import com.scorpion.marketdata.core.broker.ConsolidatedEventPublisher;
+import com.scorpion.marketdata.core.cache.MarketDataCache;
+import com.scorpion.marketdata.core.entity.MarketData;
+import com.scorpion.marketdata.core.repository.MarketDataRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Recomputes the theoretical prices of dependants when an underlying's consolidated last traded price
+// changes. Ticks are coalesced per underlying and written by a scheduled flush, one transaction per flush.
+// Dependants are looked up in the database at flush time, so a dependant written by another core node
+// is repriced here as well.
+@Component
+public class TheoreticalPriceEngine {
+    private static final Logger log = LoggerFactory.getLogger(TheoreticalPriceEngine.class);
+    private final Set<String> pendingUnderlyings = ConcurrentHashMap.newKeySet();
+    private final MarketDataRepository marketDataRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final ConsolidatedPriceBook consolidatedPriceBook;
+    private final ConsolidatedEventPublisher consolidatedEventPublisher;
+    private final MarketDataCache marketDataCache;
+
+    public TheoreticalPriceEngine(MarketDataRepository marketDataRepository, PlatformTransactionManager transactionManager,
+                                  ConsolidatedPriceBook consolidatedPriceBook, ConsolidatedEventPublisher consolidatedEventPublisher,
+                                  MarketDataCache marketDataCache) {
+        this.marketDataRepository = marketDataRepository;
+        this.transactionManager = transactionManager;
+        this.consolidatedPriceBook = consolidatedPriceBook;
+        this.consolidatedEventPublisher = consolidatedEventPublisher;
+        this.marketDataCache = marketDataCache;
+    }
+
+    public static double theoreticalPrice(double underlyingLastTradedPrice, Double volatility) {
+        double theoreticalPrice = 0.0;
+
+        if (!Double.isNaN(underlyingLastTradedPrice) && volatility != null) {
+            theoreticalPrice = underlyingLastTradedPrice * volatility;
+        }
+
+        return theoreticalPrice;
+    }
+
+    // Repeated ticks of the same underlying before the next flush collapse into one recompute
+    public void underlyingChanged(String symbol) {
+        pendingUnderlyings.add(symbol);
+    }
+
+    public int pendingCount() {
+        return pendingUnderlyings.size();
+    }
+
+    @Scheduled(fixedDelayString = "${market-data.core.propagation.flush-interval-ms:50}")
+    public void flush() {
+        if (pendingUnderlyings.isEmpty()) {
+            return;
+        }
+
+        List<String> underlyings = new ArrayList<>();
+
+        for (Iterator<String> iterator = pendingUnderlyings.iterator(); iterator.hasNext(); ) {
+            underlyings.add(iterator.next());
+            iterator.remove();
+        }
+
+        // Prices are read at flush time, so a coalesced underlying is recomputed from its latest tick
+        Map<String, Double> lastTradedPrices = new HashMap<>();
+        List<MarketData> dependants;
+
+        DefaultTransactionDefinition def = new DefaultTransactionDefinition();
+        def.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRED);
+        TransactionStatus status = transactionManager.getTransaction(def);
+
+        try {
+            // One indexed read for every pending underlying; those without dependants cost nothing more
+            dependants = marketDataRepository.findAllByDependsOnSymbolIn(underlyings);
+
+            for (MarketData dependant : dependants) {
+                lastTradedPrices.computeIfAbsent(dependant.getDependsOnSymbol(), underlying -> {
+                    double lastTradedPrice = consolidatedPriceBook.getLastTradedPrice(underlying);
+                    marketDataRepository.updateTheoreticalPrices(underlying, Double.isNaN(lastTradedPrice) ? null : lastTradedPrice);
+                    return lastTradedPrice;
+                });
+            }
+
+            transactionManager.commit(status);
+
+        } catch (Exception e) {
+            if (!status.isCompleted()) {
+                transactionManager.rollback(status);
+            }
+
+            pendingUnderlyings.addAll(underlyings);
+            log.warn("Theoretical price propagation failed, retrying {} underlyings", underlyings.size(), e);
+            return;
+        }
+
+        for (MarketData dependant : dependants) {
+            if ("CONSOLIDATED".equals(dependant.getSource())) {
+                ConsolidatedQuote quote = consolidatedPriceBook.get(dependant.getSymbol());
+
+                if (quote != null) {
+                    double lastTradedPrice = lastTradedPrices.get(dependant.getDependsOnSymbol());
+                    quote = consolidatedPriceBook.updateTheoreticalPrice(dependant.getSymbol(), theoreticalPrice(lastTradedPrice, quote.getVolatility()));
+                }
+
+                if (quote != null) {
+                    consolidatedEventPublisher.publish(dependant.getSymbol(), quote.toResponseBody());
+                }
+            }
+
+            marketDataCache.evict(dependant.getSymbol(), dependant.getSource());
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.scorpion.marketdata.core.tick;
+
+import com.scorpion.marketdata.api.dto.MarketDataRequestBody;
+
+// Core's in-memory form of a market data update: primitive fields plus a bitmask of the ones the
+// update carried, so an absent field needs no boxed null. A field that is not present means
+// "unchanged", as for the nulls of MarketDataRequestBody.
+public final class MarketTick {
+    public static final int LAST_TRADED_PRICE = 1;
+    public static final int BID_PRICE = 1 << 1;
+    public static final int MID_PRICE = 1 << 2;
+    public static final int ASK_PRICE = 1 << 3;
+    public static final int MARKET_TIMESTAMP = 1 << 4;
+    public static final int DEPENDS_ON_SYMBOL = 1 << 5;
+    public static final int LAST_COUPON_DATE = 1 << 6;
+    public static final int INTEREST_RATE = 1 << 7;
+    public static final int VOLATILITY = 1 << 8;
+
+    private final int symbolId;
+    private final int sourceId;
+    private int present;
+    private double lastTradedPrice;
+    private double bidPrice;
+    private double midPrice;
+    private double askPrice;
+    // The timestamp as received, persisted unchanged
+    private String marketTimestamp;
+    private int dependsOnSymbolId = -1;
+    private long lastCouponEpochDay;
+    private double interestRate;
+    private double volatility;
+
+    public MarketTick(int symbolId, int sourceId) {
+        this.symbolId = symbolId;
+        this.sourceId = sourceId;
+    }
+
+    // Ticks for the same symbol and source share a key
+    public static long key(int symbolId, int sourceId) {
+        return ((long) symbolId << 32) | (sourceId & 0xFFFFFFFFL);
+    }
+
+    // Applies a later update for the same symbol and source in place, straight from its boxed fields
+    public void merge(MarketDataRequestBody next, SymbolTable symbolTable) {
+        if (next.getLastTradedPrice() != null) {
+            setLastTradedPrice(next.getLastTradedPrice());
+        }
+
+        if (next.getBidPrice() != null) {
+            setBidPrice(next.getBidPrice());
+        }
+
+        if (next.getMidPrice() != null) {
+            setMidPrice(next.getMidPrice());
+        }
+
+        if (next.getAskPrice() != null) {
+            setAskPrice(next.getAskPrice());
+        }
+
+        if (next.getMarketTimestamp() != null) {
+            setMarketTimestamp(next.getMarketTimestamp());
+        }
+
+        if (next.getDependsOnSymbol() != null) {
+            setDependsOnSymbolId(symbolTable.id(next.getDependsOnSymbol()));
+        }
+
+        if (next.getLastCouponDate() != null) {
+            setLastCouponEpochDay(next.getLastCouponDate().toEpochDay());
+        }
+
+        if (next.getInterestRate() != null) {
+            setInterestRate(next.getInterestRate());
+        }
+
+        if (next.getVolatility() != null) {
+            setVolatility(next.getVolatility());
+        }
+    }
+
+    public boolean has(int field) {
+        return (present & field) != 0;
+    }
+
+    public int getSymbolId() {
+        return symbolId;
+    }
+
+    public int getSourceId() {
+        return sourceId;
+    }
+
+    public double getLastTradedPrice() {
+        return lastTradedPrice;
+    }
+
+    public void setLastTradedPrice(double lastTradedPrice) {
+        this.lastTradedPrice = lastTradedPrice;
+        present |= LAST_TRADED_PRICE;
+    }
+
+    public double getBidPrice() {
+        return bidPrice;
+    }
+
+    public void setBidPrice(double bidPrice) {
+        this.bidPrice = bidPrice;
+        present |= BID_PRICE;
+    }
+
+    public double getMidPrice() {
+        return midPrice;
+    }
+
+    public void setMidPrice(double midPrice) {
+        this.midPrice = midPrice;
+        present |= MID_PRICE;
+    }
+
+    public double getAskPrice() {
+        return askPrice;
+    }
+
+    public void setAskPrice(double askPrice) {
+        this.askPrice = askPrice;
+        present |= ASK_PRICE;
+    }
+
+    public String getMarketTimestamp() {
+        return marketTimestamp;
+    }
+
+    public void setMarketTimestamp(String marketTimestamp) {
+        this.marketTimestamp = marketTimestamp;
+        present |= MARKET_TIMESTAMP;
+    }
+
+    public int getDependsOnSymbolId() {
+        return dependsOnSymbolId;
+    }
+
+    public void setDependsOnSymbolId(int dependsOnSymbolId) {
+        this.dependsOnSymbolId = dependsOnSymbolId;
+        present |= DEPENDS_ON_SYMBOL;
+    }
+
+    public long getLastCouponEpochDay() {
+        return lastCouponEpochDay;
+    }
+
+    public void setLastCouponEpochDay(long lastCouponEpochDay) {
+        this.lastCouponEpochDay = lastCouponEpochDay;
+        present |= LAST_COUPON_DATE;
+    }
+
+    public double getInterestRate() {
+        return interestRate;
+    }
+
+    public void setInterestRate(double interestRate) {
+        this.interestRate = interestRate;
+        present |= INTEREST_RATE;
+    }
+
+    public double getVolatility() {
+        return volatility;
+    }
+
+    public void setVolatility(double volatility) {
+        this.volatility = volatility;
+        present |= VOLATILITY;
+    }
+}
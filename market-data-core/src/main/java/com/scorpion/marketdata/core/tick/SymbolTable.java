@@ -0,0 +1,40 @@
+package com.scorpion.marketdata.core.tick;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Dense int ids for symbols and sources, so ticks carry and compare ints instead of strings. Ids are
+// never reclaimed; the table grows with the instrument universe, not with the tick rate.
+@Component
+public class SymbolTable {
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] names = new String[1024];
+    private int size;
+
+    // -1 for null
+    public int id(String name) {
+        if (name == null) {
+            return -1;
+        }
+
+        Integer id = ids.get(name);
+        return id != null ? id : ids.computeIfAbsent(name, this::register);
+    }
+
+    public String name(int id) {
+        return id >= 0 ? names[id] : null;
+    }
+
+    // Runs inside computeIfAbsent, at most once per name. Readers only look up ids they got from the
+    // map, which publishes the array slot written here.
+    private synchronized Integer register(String name) {
+        if (size == names.length) {
+            names = Arrays.copyOf(names, size * 2);
+        }
+
+        names[size] = name;
+        return size++;
+    }
+}
@@ -0,0 +1,65 @@
+package com.scorpion.marketdata.core.broker;
+
+import com.scorpion.marketdata.core.book.ConsolidatedPriceBook;
+import com.scorpion.marketdata.core.dto.ConsolidatedEvent;
+import com.scorpion.marketdata.core.dto.MarketDataResponseBody;
+import com.scorpion.marketdata.core.repository.MarketDataRepository;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.listener.ConsumerSeekAware.ConsumerSeekCallback;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ConsolidatedEventListenerTests {
+    private final MarketDataRepository repository = mock(MarketDataRepository.class);
+    private final ConsolidatedPriceBook book = new ConsolidatedPriceBook(repository);
+    private final ConsolidatedEventListener listener = new ConsolidatedEventListener(book, 5000);
+
+    @Test
+    void appliesJsonAndBinaryEvents() {
+        Map<String, Object> json = new HashMap<>();
+        json.put("symbol", "AAPL");
+        json.put("lastTradedPrice", 101);
+        json.put("volatility", 0.2);
+        json.put("lastCouponDate", "2024-01-01");
+        listener.handleConsolidatedEvent(new ConsolidatedEvent("AAPL", json));
+
+        listener.handleConsolidatedEvent(new ConsolidatedEvent("MSFT", new MarketDataResponseBody("MSFT", 400.0, null, null, null,
+                "2024-01-02T10:15:30Z", null, "CONSOLIDATED", null, null, null, null, null)));
+
+        assertEquals(101.0, book.getLastTradedPrice("AAPL"));
+        assertEquals(0.2, book.get("AAPL").getVolatility());
+        assertEquals(400.0, book.getLastTradedPrice("MSFT"));
+    }
+
+    @Test
+    void eventWithoutDataRemovesTheSymbol() {
+        listener.handleConsolidatedEvent(new ConsolidatedEvent("AAPL", Map.of("symbol", "AAPL", "lastTradedPrice", 101.0)));
+        listener.handleConsolidatedEvent(new ConsolidatedEvent("AAPL", null));
+
+        assertNull(book.get("AAPL"));
+        assertEquals(0, book.size());
+    }
+
+    @Test
+    void warmsOnceAndSeeksOnlyNewlyAssignedPartitions() {
+        TopicPartition first = new TopicPartition(ConsolidatedEventPublisher.TOPIC, 0);
+        TopicPartition second = new TopicPartition(ConsolidatedEventPublisher.TOPIC, 1);
+        ConsumerSeekCallback callback = mock(ConsumerSeekCallback.class);
+
+        listener.onPartitionsAssigned(Map.of(first, 0L), callback);
+        listener.onPartitionsAssigned(Map.of(first, 0L, second, 0L), callback);
+
+        verify(repository, times(1)).findAllBySource("CONSOLIDATED");
+        verify(callback).seekToTimestamp(eq(List.of(first)), anyLong());
+        verify(callback).seekToTimestamp(eq(List.of(second)), anyLong());
+        verifyNoMoreInteractions(callback);
+    }
+}
@@ -0,0 +1,79 @@
+package com.scorpion.marketdata.core.broker;
+
+import com.scorpion.marketdata.api.dto.DeleteRequest;
+import com.scorpion.marketdata.api.dto.MarketDataRequestBody;
+import com.scorpion.marketdata.api.dto.UpdateRequest;
+import com.scorpion.marketdata.core.dto.TransactionStatusDto;
+import com.scorpion.marketdata.core.service.MarketDataServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class MarketDataCoreBrokerConflationTests {
+    private final MarketDataServiceImpl service = mock(MarketDataServiceImpl.class);
+
+    @SuppressWarnings("unchecked")
+    private MarketDataCoreBroker broker(int maxPending) {
+        KafkaTemplate<String, Object> kafkaTemplate = mock(KafkaTemplate.class);
+        when(kafkaTemplate.send(any(Message.class))).thenReturn(new CompletableFuture<>());
+        when(service.saveMarketDataBatch(anyList())).thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).stream()
+                .map(marketData -> new TransactionStatusDto(true, "Market data saved successfully."))
+                .toList());
+
+        return new MarketDataCoreBroker(service, kafkaTemplate, new StageMetrics(new SimpleMeterRegistry()), true, 5000, maxPending);
+    }
+
+    @Test
+    void pollIsNotAcknowledgedBeforeItsWindowIsPersisted() throws Exception {
+        MarketDataCoreBroker broker = broker(20000);
+        CompletableFuture<Void> listener = CompletableFuture.runAsync(() -> broker.handleMarketDataUpdateBatch(List.of(update("1"), update("2"))));
+
+        assertThrows(Exception.class, () -> listener.get(200, TimeUnit.MILLISECONDS));
+        verify(service, never()).saveMarketDataBatch(anyList());
+
+        broker.flushConflatedUpdates();
+
+        listener.get(5, TimeUnit.SECONDS);
+        verify(service).saveMarketDataBatch(argThat(list -> list.size() == 2));
+    }
+
+    @Test
+    void overflowingPollIsFlushedByItsListener() {
+        MarketDataCoreBroker broker = broker(1);
+
+        broker.handleMarketDataUpdateBatch(List.of(update("1"), update("2")));
+
+        verify(service).saveMarketDataBatch(anyList());
+    }
+
+    @Test
+    void deleteFlushesQueuedUpdatesFirst() throws Exception {
+        MarketDataCoreBroker broker = broker(20000);
+        when(service.deleteMarketData("AAPL", "BLOOMBERG")).thenReturn(new TransactionStatusDto(true, "Market data deleted successfully."));
+        CompletableFuture<Void> listener = CompletableFuture.runAsync(() -> broker.handleMarketDataUpdateBatch(List.of(update("1"))));
+
+        verify(service, after(200).never()).saveMarketDataBatch(anyList());
+        broker.handleMarketDataDelete(new DeleteRequest("2", "AAPL", "BLOOMBERG"), null, null, null);
+
+        listener.get(5, TimeUnit.SECONDS);
+        InOrder order = inOrder(service);
+        order.verify(service).saveMarketDataBatch(anyList());
+        order.verify(service).deleteMarketData("AAPL", "BLOOMBERG");
+    }
+
+    private static Message<UpdateRequest> update(String correlationId) {
+        return MessageBuilder.withPayload(new UpdateRequest(correlationId, new MarketDataRequestBody("AAPL", 101.0, null, null, null,
+                "2024-01-02T10:15:31Z", null, "BLOOMBERG", null, null, null))).build();
+    }
+}
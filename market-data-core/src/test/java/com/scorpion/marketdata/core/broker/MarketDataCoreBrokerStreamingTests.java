@@ -0,0 +1,41 @@
+package com.scorpion.marketdata.core.broker;
+
+import com.scorpion.marketdata.api.dto.GetConsolidatedBatchRequest;
+import com.scorpion.marketdata.core.dto.KafkaResponse;
+import com.scorpion.marketdata.core.service.MarketDataServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.messaging.Message;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class MarketDataCoreBrokerStreamingTests {
+    private final MarketDataServiceImpl service = mock(MarketDataServiceImpl.class);
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, Object> kafkaTemplate = mock(KafkaTemplate.class);
+    private final MarketDataCoreBroker broker = new MarketDataCoreBroker(service, kafkaTemplate, new StageMetrics(new SimpleMeterRegistry()),
+            false, 5000, 20000);
+
+    @Test
+    void chunkedRequestWithoutSymbolsEndsWithOneEmptyLastChunk() {
+        when(kafkaTemplate.send(any(Message.class))).thenReturn(new CompletableFuture<>());
+        when(service.getMarketDataBatch(List.of())).thenReturn(List.of());
+
+        broker.handleMarketDataQueryConsolidatedBatch(new GetConsolidatedBatchRequest("1", null, 100), null, null, null);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Message<KafkaResponse>> sent = ArgumentCaptor.forClass(Message.class);
+        verify(kafkaTemplate).send(sent.capture());
+        KafkaResponse response = sent.getValue().getPayload();
+        assertEquals(List.of(), response.getData());
+        assertEquals(0, response.getSequence());
+        assertTrue(response.getLast());
+    }
+}
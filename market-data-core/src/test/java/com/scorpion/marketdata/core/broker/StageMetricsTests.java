@@ -0,0 +1,59 @@
+package com.scorpion.marketdata.core.broker;
+
+import com.scorpion.marketdata.core.timing.TimingHeaders;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StageMetricsTests {
+
+    @Test
+    void recordsEveryStageAndEchoesTimestampsOnTheReply() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        StageMetrics stageMetrics = new StageMetrics(registry);
+        RequestTiming timing = RequestTiming.received("market-data-update", TimingHeaders.encode(1_000), 1_500);
+        timing.processed(1_600, 2_600);
+
+        MessageBuilder<String> reply = MessageBuilder.withPayload("reply");
+        timing.addHeaders(reply, 2_650);
+        stageMetrics.record(timing, 2_650);
+
+        assertEquals(500, stageTime(registry, "request.kafka"));
+        assertEquals(100, stageTime(registry, "core.queue"));
+        assertEquals(1_000, stageTime(registry, "core.process"));
+        assertEquals(50, stageTime(registry, "core.reply"));
+
+        Message<String> message = reply.build();
+        assertEquals(1_000, TimingHeaders.get(message.getHeaders(), TimingHeaders.API_SENT));
+        assertEquals(1_500, TimingHeaders.get(message.getHeaders(), TimingHeaders.CORE_RECEIVED));
+        assertEquals(2_650, TimingHeaders.get(message.getHeaders(), TimingHeaders.CORE_REPLY_SENT));
+    }
+
+    @Test
+    void dropsSkewedAndMissingApiTimestamps() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        StageMetrics stageMetrics = new StageMetrics(registry);
+
+        RequestTiming skewed = RequestTiming.received("market-data-delete", TimingHeaders.encode(5_000), 1_500);
+        skewed.processed(1_600, 1_700);
+        stageMetrics.record(skewed, 1_700);
+
+        RequestTiming legacy = RequestTiming.received("market-data-delete", null, 1_500);
+        legacy.processed(1_600, 1_700);
+        stageMetrics.record(legacy, 1_700);
+
+        assertNull(registry.find("market.data.core.stage").tag("stage", "request.kafka").timer());
+        assertEquals(2, registry.get("market.data.core.stage").tag("stage", "core.process").timer().count());
+    }
+
+    private static double stageTime(SimpleMeterRegistry registry, String stage) {
+        Timer timer = registry.get("market.data.core.stage").tag("operation", "market-data-update").tag("stage", stage).timer();
+        return timer.totalTime(TimeUnit.MICROSECONDS);
+    }
+}
@@ -0,0 +1,63 @@
+package com.scorpion.marketdata.core.jfr;
+
+import com.scorpion.marketdata.core.entity.MarketData;
+import com.scorpion.marketdata.core.repository.MarketDataRepository;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RepositoryEventPostProcessorTests {
+
+    @Test
+    void recordsOneEventPerRepositoryCall() throws Exception {
+        MarketDataRepository repository = (MarketDataRepository) new RepositoryEventPostProcessor()
+                .postProcessAfterInitialization(fakeRepository(), "marketDataRepository");
+        Path file = Files.createTempFile("repository-events", ".jfr");
+
+        try (Recording recording = new Recording()) {
+            recording.enable(RepositoryCallEvent.class).withoutThreshold();
+            recording.start();
+
+            repository.findAllBySymbolAndSourceIn("AAPL", List.of("BLOOMBERG", "CONSOLIDATED"));
+            repository.findBySymbolAndSource("AAPL", "BLOOMBERG");
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        Files.delete(file);
+
+        assertEquals(2, events.size());
+        assertEquals("findAllBySymbolAndSourceIn", events.get(0).getString("method"));
+        assertEquals("AAPL", events.get(0).getString("symbol"));
+        assertEquals(2, events.get(0).getInt("rowCount"));
+        assertEquals("findBySymbolAndSource", events.get(1).getString("method"));
+        assertEquals("BLOOMBERG", events.get(1).getString("source"));
+        assertEquals(1, events.get(1).getInt("rowCount"));
+    }
+
+    @Test
+    void leavesOtherBeansUnwrapped() {
+        Object bean = new Object();
+
+        assertSame(bean, new RepositoryEventPostProcessor().postProcessAfterInitialization(bean, "other"));
+    }
+
+    private static MarketDataRepository fakeRepository() {
+        return (MarketDataRepository) Proxy.newProxyInstance(MarketDataRepository.class.getClassLoader(), new Class<?>[]{MarketDataRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findAllBySymbolAndSourceIn" -> List.of(new MarketData(), new MarketData());
+                    case "findBySymbolAndSource" -> new MarketData();
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
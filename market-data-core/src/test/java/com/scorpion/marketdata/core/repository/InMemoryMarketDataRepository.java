@@ -0,0 +1,334 @@
+package com.scorpion.marketdata.core.repository;
+
+import com.scorpion.marketdata.core.entity.MarketData;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.query.FluentQuery;
+
+import java.beans.PropertyDescriptor;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+// Stands in for the JPA repository so the benchmarks and the API load harness run the service without
+// PostgreSQL; shipped in the test-jar. Rows are indexed by symbol, then source, like the unique
+// constraint. Every repository method is implemented, so a service change that calls a new one still
+// runs instead of failing mid-run.
+public final class InMemoryMarketDataRepository implements MarketDataRepository {
+    private static final Comparator<Object> NULLS_FIRST = Comparator.nullsFirst(InMemoryMarketDataRepository::compare);
+
+    private final Map<String, Map<String, MarketData>> rowsBySymbol = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+
+    @Override
+    public MarketData findBySymbolAndSource(String symbol, String source) {
+        return symbol(symbol).get(source);
+    }
+
+    @Override
+    public List<MarketData> findAllBySymbol(String symbol) {
+        return new ArrayList<>(symbol(symbol).values());
+    }
+
+    @Override
+    public List<MarketData> findAllBySource(String source) {
+        return filter(row -> row.getSource().equals(source));
+    }
+
+    @Override
+    public List<MarketData> findAllBySymbolAndSourceIn(String symbol, Collection<String> sources) {
+        Map<String, MarketData> rows = symbol(symbol);
+        List<MarketData> matches = new ArrayList<>();
+
+        for (String source : sources) {
+            MarketData row = rows.get(source);
+
+            if (row != null) {
+                matches.add(row);
+            }
+        }
+
+        return matches;
+    }
+
+    @Override
+    public List<MarketData> findAllByDependsOnSymbol(String dependsOnSymbol) {
+        return filter(row -> dependsOnSymbol.equals(row.getDependsOnSymbol()));
+    }
+
+    @Override
+    public List<MarketData> findAllByDependsOnSymbolIn(Collection<String> dependsOnSymbols) {
+        return filter(row -> dependsOnSymbols.contains(row.getDependsOnSymbol()));
+    }
+
+    @Override
+    public List<MarketData> findAllBySymbolIn(Collection<String> symbols) {
+        List<MarketData> matches = new ArrayList<>();
+
+        for (String symbol : symbols) {
+            matches.addAll(symbol(symbol).values());
+        }
+
+        return matches;
+    }
+
+    @Override
+    public int updateTheoreticalPrices(String dependsOnSymbol, Double lastTradedPrice) {
+        int updated = 0;
+
+        for (MarketData row : findAllByDependsOnSymbol(dependsOnSymbol)) {
+            row.setTheoreticalPrice(lastTradedPrice != null && row.getVolatility() != null ? row.getVolatility() * lastTradedPrice : 0.0);
+            updated++;
+        }
+
+        return updated;
+    }
+
+    @Override
+    public <S extends MarketData> S save(S marketData) {
+        if (marketData.getId() == null) {
+            marketData.setId(ids.incrementAndGet());
+        }
+
+        rowsBySymbol.computeIfAbsent(marketData.getSymbol(), symbol -> new ConcurrentHashMap<>()).put(marketData.getSource(), marketData);
+        return marketData;
+    }
+
+    @Override
+    public <S extends MarketData> List<S> saveAll(Iterable<S> marketDataList) {
+        List<S> saved = new ArrayList<>();
+
+        for (S marketData : marketDataList) {
+            saved.add(save(marketData));
+        }
+
+        return saved;
+    }
+
+    @Override
+    public <S extends MarketData> S saveAndFlush(S marketData) {
+        return save(marketData);
+    }
+
+    @Override
+    public <S extends MarketData> List<S> saveAllAndFlush(Iterable<S> marketDataList) {
+        return saveAll(marketDataList);
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public Optional<MarketData> findById(Long id) {
+        return filter(row -> id.equals(row.getId())).stream().findFirst();
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return findById(id).isPresent();
+    }
+
+    @Override
+    public MarketData getOne(Long id) {
+        return getReferenceById(id);
+    }
+
+    @Override
+    public MarketData getById(Long id) {
+        return getReferenceById(id);
+    }
+
+    @Override
+    public MarketData getReferenceById(Long id) {
+        return findById(id).orElseThrow(() -> new IllegalArgumentException("No market data with id " + id));
+    }
+
+    @Override
+    public List<MarketData> findAll() {
+        return filter(row -> true);
+    }
+
+    @Override
+    public List<MarketData> findAllById(Iterable<Long> ids) {
+        List<Long> wanted = new ArrayList<>();
+        ids.forEach(wanted::add);
+        return filter(row -> wanted.contains(row.getId()));
+    }
+
+    @Override
+    public List<MarketData> findAll(Sort sort) {
+        return sorted(findAll(), sort);
+    }
+
+    @Override
+    public Page<MarketData> findAll(Pageable pageable) {
+        return page(findAll(), pageable);
+    }
+
+    @Override
+    public long count() {
+        return findAll().size();
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        findById(id).ifPresent(this::delete);
+    }
+
+    @Override
+    public void delete(MarketData marketData) {
+        Map<String, MarketData> rows = rowsBySymbol.get(marketData.getSymbol());
+
+        if (rows != null) {
+            rows.remove(marketData.getSource());
+        }
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends Long> ids) {
+        ids.forEach(this::deleteById);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends MarketData> marketDataList) {
+        marketDataList.forEach(this::delete);
+    }
+
+    @Override
+    public void deleteAll() {
+        rowsBySymbol.clear();
+    }
+
+    @Override
+    public void deleteAllInBatch(Iterable<MarketData> marketDataList) {
+        deleteAll(marketDataList);
+    }
+
+    @Override
+    public void deleteAllByIdInBatch(Iterable<Long> ids) {
+        deleteAllById(ids);
+    }
+
+    @Override
+    public void deleteAllInBatch() {
+        deleteAll();
+    }
+
+    // Examples match on the probe's non-null properties, as the default ExampleMatcher does
+    @Override
+    public <S extends MarketData> Optional<S> findOne(Example<S> example) {
+        return findAll(example).stream().findFirst();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <S extends MarketData> List<S> findAll(Example<S> example) {
+        BeanWrapper probe = new BeanWrapperImpl(example.getProbe());
+        return (List<S>) filter(row -> matches(probe, row));
+    }
+
+    @Override
+    public <S extends MarketData> List<S> findAll(Example<S> example, Sort sort) {
+        return sorted(findAll(example), sort);
+    }
+
+    @Override
+    public <S extends MarketData> Page<S> findAll(Example<S> example, Pageable pageable) {
+        return page(findAll(example), pageable);
+    }
+
+    @Override
+    public <S extends MarketData> long count(Example<S> example) {
+        return findAll(example).size();
+    }
+
+    @Override
+    public <S extends MarketData> boolean exists(Example<S> example) {
+        return !findAll(example).isEmpty();
+    }
+
+    // The fluent query API needs a query engine behind it; nothing in the service uses it
+    @Override
+    public <S extends MarketData, R> R findBy(Example<S> example, Function<FluentQuery.FetchableFluentQuery<S>, R> queryFunction) {
+        throw new UnsupportedOperationException("findBy(Example, Function) is not supported by the in-memory repository");
+    }
+
+    private Map<String, MarketData> symbol(String symbol) {
+        return rowsBySymbol.getOrDefault(symbol, Map.of());
+    }
+
+    private List<MarketData> filter(Predicate<MarketData> predicate) {
+        List<MarketData> matches = new ArrayList<>();
+
+        for (Map<String, MarketData> rows : rowsBySymbol.values()) {
+            for (MarketData row : rows.values()) {
+                if (predicate.test(row)) {
+                    matches.add(row);
+                }
+            }
+        }
+
+        return matches;
+    }
+
+    private static boolean matches(BeanWrapper probe, MarketData row) {
+        BeanWrapper candidate = new BeanWrapperImpl(row);
+
+        for (PropertyDescriptor property : probe.getPropertyDescriptors()) {
+            String name = property.getName();
+            Object value = "class".equals(name) ? null : probe.getPropertyValue(name);
+
+            if (value != null && !value.equals(candidate.getPropertyValue(name))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static <S> List<S> sorted(List<S> rows, Sort sort) {
+        Comparator<S> comparator = null;
+
+        for (Sort.Order order : sort) {
+            Comparator<S> byProperty = Comparator.comparing(row -> new BeanWrapperImpl(row).getPropertyValue(order.getProperty()), NULLS_FIRST);
+            byProperty = order.isAscending() ? byProperty : byProperty.reversed();
+            comparator = comparator == null ? byProperty : comparator.thenComparing(byProperty);
+        }
+
+        if (comparator != null) {
+            rows.sort(comparator);
+        }
+
+        return rows;
+    }
+
+    private static <S> Page<S> page(List<S> rows, Pageable pageable) {
+        List<S> sortedRows = sorted(rows, pageable.getSort());
+
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(sortedRows);
+        }
+
+        int from = (int) Math.min(pageable.getOffset(), sortedRows.size());
+        int to = Math.min(from + pageable.getPageSize(), sortedRows.size());
+        return new PageImpl<>(new ArrayList<>(sortedRows.subList(from, to)), pageable, sortedRows.size());
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compare(Object left, Object right) {
+        return ((Comparable) left).compareTo(right);
+    }
+}
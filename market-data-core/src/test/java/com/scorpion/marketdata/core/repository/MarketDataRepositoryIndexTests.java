@@ -0,0 +1,89 @@
+package com.scorpion.marketdata.core.repository;
+
+import com.scorpion.marketdata.core.entity.MarketData;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Each lookup must be a single statement, and H2's plan for that statement must use one of the
+// market_data indexes rather than a table scan
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.scorpion.marketdata.core.repository.MarketDataRepositoryIndexTests$StatementRecorder"
+})
+class MarketDataRepositoryIndexTests {
+    @Autowired
+    private MarketDataRepository repository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public static class StatementRecorder implements StatementInspector {
+        static final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+
+    @BeforeEach
+    void insertRows() {
+        for (String source : List.of("BLOOMBERG", "REUTERS", "CONSOLIDATED")) {
+            entityManager.persist(new MarketData("AAPL", 100.0, null, null, null, "2024-01-02T10:15:30Z", null, source, null, null, null, 0.0, 0.0));
+            entityManager.persist(new MarketData("AAPL_C", 5.0, null, null, null, "2024-01-02T10:15:30Z", "AAPL", source, null, null, 0.2, 0.0, 20.0));
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        StatementRecorder.statements.clear();
+    }
+
+    @Test
+    void symbolAndSourceLookupUsesTheUniqueIndex() {
+        assertEquals(2, repository.findAllBySymbolAndSourceIn("AAPL", List.of("BLOOMBERG", "CONSOLIDATED")).size());
+        assertIndexed("MARKET_DATA_SYMBOL", "AAPL", "BLOOMBERG", "CONSOLIDATED");
+    }
+
+    @Test
+    void symbolLookupsUseTheSymbolPrefix() {
+        assertEquals(3, repository.findAllBySymbol("AAPL").size());
+        assertIndexed("MARKET_DATA_SYMBOL", "AAPL");
+
+        assertEquals(6, repository.findAllBySymbolIn(List.of("AAPL", "AAPL_C")).size());
+        assertIndexed("MARKET_DATA_SYMBOL", "AAPL", "AAPL_C");
+    }
+
+    @Test
+    void dependantLookupUsesTheDependencyIndex() {
+        assertEquals(3, repository.findAllByDependsOnSymbol("AAPL").size());
+        assertIndexed("MARKET_DATA_DEPENDS_ON_SYMBOL", "AAPL");
+
+        assertEquals(3, repository.findAllByDependsOnSymbolIn(List.of("AAPL", "MSFT")).size());
+        assertIndexed("MARKET_DATA_DEPENDS_ON_SYMBOL", "AAPL", "MSFT");
+    }
+
+    // EXPLAINs the one statement the lookup ran, with the lookup's own parameters
+    private void assertIndexed(String index, Object... parameters) {
+        assertEquals(1, StatementRecorder.statements.size(), () -> String.valueOf(StatementRecorder.statements));
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + StatementRecorder.statements.get(0), String.class, parameters);
+        StatementRecorder.statements.clear();
+
+        assertNotNull(plan);
+        assertTrue(plan.toUpperCase().contains(index), plan);
+    }
+}
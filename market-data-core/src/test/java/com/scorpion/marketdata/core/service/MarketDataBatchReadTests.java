@@ -0,0 +1,65 @@
+package com.scorpion.marketdata.core.service;
+
+import com.scorpion.marketdata.core.book.ConsolidatedPriceBook;
+import com.scorpion.marketdata.core.broker.ConsolidatedEventPublisher;
+import com.scorpion.marketdata.core.cache.MarketDataCache;
+import com.scorpion.marketdata.core.dto.MarketDataResponseBody;
+import com.scorpion.marketdata.core.entity.MarketData;
+import com.scorpion.marketdata.core.repository.MarketDataRepository;
+import com.scorpion.marketdata.core.tick.SymbolTable;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MarketDataBatchReadTests {
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 100, 1_000, 10_000})
+    void batchKeepsOrderAndMissesWithoutQueryingTheDatabase(int batchSize) {
+        MarketDataRepository repository = mock(MarketDataRepository.class);
+        List<MarketData> consolidated = new ArrayList<>();
+
+        // Only even symbols have consolidated data
+        for (int i = 0; i < batchSize; i += 2) {
+            consolidated.add(new MarketData("SYM" + i, (double) i, null, null, null, null, null, "CONSOLIDATED", null, null, null, 0.0, 0.0));
+        }
+
+        when(repository.findAllBySource("CONSOLIDATED")).thenReturn(consolidated);
+
+        ConsolidatedPriceBook book = new ConsolidatedPriceBook(repository);
+        book.warm();
+
+        MarketDataServiceImpl service = new MarketDataServiceImpl(repository, mock(PlatformTransactionManager.class), book,
+                mock(ConsolidatedEventPublisher.class), mock(MarketDataCache.class), mock(TheoreticalPriceEngine.class), new SymbolTable());
+
+        List<String> symbols = new ArrayList<>();
+
+        for (int i = batchSize - 1; i >= 0; i--) {
+            symbols.add("SYM" + i);
+        }
+
+        List<MarketDataResponseBody> result = service.getMarketDataBatch(symbols);
+
+        assertEquals(batchSize, result.size());
+
+        for (int i = 0; i < batchSize; i++) {
+            int symbol = batchSize - 1 - i;
+
+            if (symbol % 2 == 0) {
+                assertEquals("SYM" + symbol, result.get(i).getSymbol());
+                assertEquals((double) symbol, result.get(i).getLastTradedPrice());
+            } else {
+                assertNull(result.get(i));
+            }
+        }
+
+        verify(repository).findAllBySource("CONSOLIDATED");
+        verifyNoMoreInteractions(repository);
+    }
+}
@@ -0,0 +1,62 @@
+package com.scorpion.marketdata.core.service;
+
+import com.scorpion.marketdata.api.dto.MarketDataRequestBody;
+import com.scorpion.marketdata.core.book.ConsolidatedPriceBook;
+import com.scorpion.marketdata.core.broker.ConsolidatedEventPublisher;
+import com.scorpion.marketdata.core.cache.MarketDataCache;
+import com.scorpion.marketdata.core.dto.TransactionStatusDto;
+import com.scorpion.marketdata.core.entity.MarketData;
+import com.scorpion.marketdata.core.repository.MarketDataRepository;
+import com.scorpion.marketdata.core.tick.SymbolTable;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class MarketDataBatchWriteTests {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void consolidatedRowTakesTheLatestTickAcrossInterleavedSources() {
+        MarketDataRepository repository = mock(MarketDataRepository.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+
+        MarketDataServiceImpl service = new MarketDataServiceImpl(repository, transactionManager, mock(ConsolidatedPriceBook.class),
+                mock(ConsolidatedEventPublisher.class), mock(MarketDataCache.class), mock(TheoreticalPriceEngine.class), new SymbolTable());
+
+        List<TransactionStatusDto> statuses = service.saveMarketDataBatch(List.of(
+                new MarketDataRequestBody("AAPL", 1.0, 10.0, null, null, "2024-01-02T10:15:30Z", null, "X", null, null, null),
+                new MarketDataRequestBody("AAPL", 2.0, null, null, 12.0, "2024-01-02T10:15:31Z", null, "Y", null, null, null),
+                new MarketDataRequestBody("AAPL", 3.0, null, null, null, "2024-01-02T10:15:32Z", null, "X", null, null, null)));
+
+        ArgumentCaptor<Iterable<MarketData>> saved = ArgumentCaptor.forClass(Iterable.class);
+        verify(repository).saveAll(saved.capture());
+        Map<String, MarketData> rows = new HashMap<>();
+
+        for (MarketData row : saved.getValue()) {
+            rows.put(row.getSource(), row);
+        }
+
+        assertEquals(3, statuses.size());
+        assertTrue(statuses.stream().allMatch(TransactionStatusDto::getStatus));
+        assertEquals(3, rows.size());
+
+        assertEquals(3.0, rows.get("CONSOLIDATED").getLastTradedPrice());
+        assertEquals(10.0, rows.get("CONSOLIDATED").getBidPrice());
+        assertEquals(12.0, rows.get("CONSOLIDATED").getAskPrice());
+        assertEquals("2024-01-02T10:15:32Z", rows.get("CONSOLIDATED").getMarketTimestamp());
+
+        assertEquals(3.0, rows.get("X").getLastTradedPrice());
+        assertNull(rows.get("X").getAskPrice());
+        assertEquals(2.0, rows.get("Y").getLastTradedPrice());
+    }
+}
@@ -0,0 +1,80 @@
+package com.scorpion.marketdata.core.service;
+
+import com.scorpion.marketdata.api.dto.MarketDataRequestBody;
+import com.scorpion.marketdata.core.book.ConsolidatedPriceBook;
+import com.scorpion.marketdata.core.broker.ConsolidatedEventPublisher;
+import com.scorpion.marketdata.core.cache.MarketDataCache;
+import com.scorpion.marketdata.core.entity.MarketData;
+import com.scorpion.marketdata.core.repository.MarketDataRepository;
+import com.scorpion.marketdata.core.tick.SymbolTable;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+// Counts the repository calls of each write. Every call is one SQL statement, except save of a managed
+// row, which is flushed as one UPDATE on commit.
+class MarketDataWriteStatementTests {
+    private final MarketDataRepository repository = mock(MarketDataRepository.class);
+    private final MarketDataServiceImpl service = createService();
+
+    private MarketDataServiceImpl createService() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+
+        return new MarketDataServiceImpl(repository, transactionManager, mock(ConsolidatedPriceBook.class),
+                mock(ConsolidatedEventPublisher.class), mock(MarketDataCache.class), mock(TheoreticalPriceEngine.class), new SymbolTable());
+    }
+
+    @Test
+    void updateReadsOnceAndWritesBothRows() {
+        when(repository.findAllBySymbolAndSourceIn(any(), any())).thenReturn(List.of(row("BLOOMBERG"), row("CONSOLIDATED")));
+
+        assertTrue(service.saveMarketData(new MarketDataRequestBody("AAPL", 101.0, null, null, null, "2024-01-02T10:15:31Z", "SPX", "BLOOMBERG",
+                null, null, 0.2)).getStatus());
+
+        verify(repository).findAllBySymbolAndSourceIn("AAPL", List.of("BLOOMBERG", "CONSOLIDATED"));
+        verify(repository, times(2)).save(any(MarketData.class));
+        verifyNoMoreInteractions(repository);
+    }
+
+    @Test
+    void deleteOfOneOfSeveralSourcesReconsolidatesInMemory() {
+        MarketData reuters = row("REUTERS");
+        MarketData consolidated = row("CONSOLIDATED");
+        when(repository.findAllBySymbol("AAPL")).thenReturn(List.of(row("BLOOMBERG"), reuters, consolidated));
+
+        assertTrue(service.deleteMarketData("AAPL", "REUTERS").getStatus());
+
+        verify(repository).findAllBySymbol("AAPL");
+        verify(repository).delete(reuters);
+        verify(repository).save(consolidated);
+        verifyNoMoreInteractions(repository);
+    }
+
+    @Test
+    void deleteOfTheLastSourceDetachesDependantsWithOneQuery() {
+        MarketData bloomberg = row("BLOOMBERG");
+        MarketData consolidated = row("CONSOLIDATED");
+        when(repository.findAllBySymbol("AAPL")).thenReturn(List.of(bloomberg, consolidated));
+        when(repository.findAllByDependsOnSymbol("AAPL")).thenReturn(List.of());
+
+        assertTrue(service.deleteMarketData("AAPL", "BLOOMBERG").getStatus());
+
+        verify(repository).findAllBySymbol("AAPL");
+        verify(repository).delete(bloomberg);
+        verify(repository).delete(consolidated);
+        verify(repository).findAllByDependsOnSymbol("AAPL");
+        verify(repository).saveAll(List.of());
+        verifyNoMoreInteractions(repository);
+    }
+
+    private static MarketData row(String source) {
+        return new MarketData("AAPL", 100.0, 99.9, 100.0, 100.1, "2024-01-02T10:15:30Z", null, source, null, null, null, 0.0, 0.0);
+    }
+}
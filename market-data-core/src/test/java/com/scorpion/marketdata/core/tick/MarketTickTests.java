@@ -0,0 +1,100 @@
+package com.scorpion.marketdata.core.tick;
+
+import com.scorpion.marketdata.api.dto.MarketDataRequestBody;
+import com.scorpion.marketdata.core.entity.MarketData;
+import com.scorpion.marketdata.core.service.MarketDataMerger;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MarketTickTests {
+    private static final int ITERATIONS = 10_000;
+    // About 76 B/tick was measured; a per-merge copy of the request would be several times that
+    private static final long MAX_COALESCING_BYTES_PER_TICK = 128;
+
+    private final SymbolTable symbolTable = new SymbolTable();
+
+    @Test
+    void mergeKeepsPartialUpdateSemantics() {
+        MarketDataRequestBody full = new MarketDataRequestBody("AAPL", 100.0, 99.9, 100.0, 100.1, "2024-01-02T10:15:30Z", "SPX", "BLOOMBERG",
+                LocalDate.of(2024, 1, 1), 0.05, 0.2);
+        MarketDataRequestBody trade = new MarketDataRequestBody("AAPL", 101.0, null, null, null, "2024-01-02T10:15:31.5Z", null, "BLOOMBERG",
+                null, null, null);
+
+        MarketTick tick = new MarketTick(symbolTable.id("AAPL"), symbolTable.id("BLOOMBERG"));
+        tick.merge(full, symbolTable);
+        tick.merge(trade, symbolTable);
+
+        MarketData fromTick = new MarketData();
+        MarketDataMerger.apply(fromTick, tick, symbolTable);
+        MarketData fromRequest = new MarketData();
+        MarketDataMerger.apply(fromRequest, full);
+        MarketDataMerger.apply(fromRequest, trade);
+
+        assertEquals(fromRequest.getLastTradedPrice(), fromTick.getLastTradedPrice());
+        assertEquals(fromRequest.getBidPrice(), fromTick.getBidPrice());
+        assertEquals(fromRequest.getMidPrice(), fromTick.getMidPrice());
+        assertEquals(fromRequest.getAskPrice(), fromTick.getAskPrice());
+        assertEquals(fromRequest.getMarketTimestamp(), fromTick.getMarketTimestamp());
+        assertEquals(fromRequest.getDependsOnSymbol(), fromTick.getDependsOnSymbol());
+        assertEquals(fromRequest.getLastCouponDate(), fromTick.getLastCouponDate());
+        assertEquals(fromRequest.getInterestRate(), fromTick.getInterestRate());
+        assertEquals(fromRequest.getVolatility(), fromTick.getVolatility());
+    }
+
+    @Test
+    void absentFieldsLeaveTheRowUnchanged() {
+        MarketData row = new MarketData();
+        row.setBidPrice(99.9);
+        Double bidPrice = row.getBidPrice();
+
+        MarketTick tick = new MarketTick(symbolTable.id("AAPL"), symbolTable.id("BLOOMBERG"));
+        tick.setLastTradedPrice(101.0);
+        tick.setBidPrice(99.9);
+        MarketDataMerger.apply(row, tick, symbolTable);
+
+        assertEquals(101.0, row.getLastTradedPrice());
+        assertSame(bidPrice, row.getBidPrice());
+        assertNull(row.getAskPrice());
+        assertFalse(tick.has(MarketTick.ASK_PRICE));
+    }
+
+    // Merging into one MarketTick per key allocates the map, the boxed keys and one tick per key; the
+    // merge itself allocates nothing
+    @Test
+    void coalescingStaysWithinAllocationBound() {
+        MarketDataRequestBody[] ticks = new MarketDataRequestBody[64];
+        for (int i = 0; i < ticks.length; i++) {
+            ticks[i] = i % 2 == 0
+                    ? new MarketDataRequestBody("SYM" + i % 8, 100.0 + i, null, null, null, "2024-01-02T10:15:30Z", null, "BLOOMBERG", null, null, null)
+                    : new MarketDataRequestBody("SYM" + i % 8, null, 99.0 + i, 100.0 + i, 101.0 + i, "2024-01-02T10:15:30Z", null, "BLOOMBERG", null, null, null);
+        }
+
+        long tickBytes = 0;
+
+        for (int i = 0; i < ITERATIONS; i++) {
+            long before = allocatedBytes();
+            Map<Long, MarketTick> marketTicks = new LinkedHashMap<>();
+            for (MarketDataRequestBody tick : ticks) {
+                int symbolId = symbolTable.id(tick.getSymbol());
+                int sourceId = symbolTable.id(tick.getSource());
+                marketTicks.computeIfAbsent(MarketTick.key(symbolId, sourceId), key -> new MarketTick(symbolId, sourceId)).merge(tick, symbolTable);
+            }
+            tickBytes += allocatedBytes() - before;
+
+            assertEquals(8, marketTicks.size());
+        }
+
+        long bytesPerTick = tickBytes / ITERATIONS / ticks.length;
+        assertTrue(bytesPerTick < MAX_COALESCING_BYTES_PER_TICK, "Coalescing allocated " + bytesPerTick + " B/tick");
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}